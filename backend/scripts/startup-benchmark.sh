@@ -0,0 +1,76 @@
+#!/usr/bin/env bash
+# Measures startup time and RSS of the backend under the lean profile.
+#
+# 1. Unpacks the Spring Boot jar into a plain classpath (AppCDS cannot archive classes
+#    loaded from nested jars or from directories).
+# 2. On JDK 13+, runs once with -XX:ArchiveClassesAtExit to build an AppCDS archive.
+# 3. Starts the application RUNS times with the archive and reports the best and median
+#    uptime / RSS from the STARTUP_METRICS log line.
+# 4. Fails if the median exceeds STARTUP_TARGET_MS or RSS_TARGET_MB (when STARTUP_ENFORCE=true).
+#
+# Usage: scripts/startup-benchmark.sh target/home-inventory-backend-1.0.0.jar
+set -euo pipefail
+
+JAR=${1:?usage: $0 <boot-jar>}
+RUNS=${RUNS:-5}
+STARTUP_TARGET_MS=${STARTUP_TARGET_MS:-1000}
+RSS_TARGET_MB=${RSS_TARGET_MB:-160}
+STARTUP_ENFORCE=${STARTUP_ENFORCE:-true}
+JAVA_OPTS=${JAVA_OPTS:--Xmx128m -Xss512k -XX:+UseSerialGC -XX:TieredStopAtLevel=1}
+
+JAR="$(cd "$(dirname "$JAR")" && pwd)/$(basename "$JAR")"
+WORK_DIR="$(dirname "$JAR")/startup"
+APP_DIR="$WORK_DIR/app"
+ARCHIVE="$WORK_DIR/app.jsa"
+MAIN_CLASS=com.homeinventory.HomeInventoryApplication
+APP_ARGS=(--spring.profiles.active=lean --app.startup.exit-after-ready=true --server.port=0
+          --file.upload-dir="$WORK_DIR/uploads" --audit.dir="$WORK_DIR/audit")
+
+rm -rf "$WORK_DIR"
+mkdir -p "$APP_DIR"
+(cd "$APP_DIR" && jar xf "$JAR")
+jar cf "$APP_DIR/application.jar" -C "$APP_DIR/BOOT-INF/classes" .
+CLASSPATH="$APP_DIR/application.jar"
+for lib in "$APP_DIR"/BOOT-INF/lib/*.jar; do
+    CLASSPATH="$CLASSPATH:$lib"
+done
+
+JAVA_MAJOR=$(java -XshowSettings:properties -version 2>&1 | awk -F'= ' '/java.specification.version/ {print $2}')
+JAVA_MAJOR=${JAVA_MAJOR#1.}
+CDS_OPTS=()
+if [ "$JAVA_MAJOR" -ge 13 ]; then
+    echo "Building AppCDS archive (JDK $JAVA_MAJOR)"
+    # shellcheck disable=SC2086
+    java $JAVA_OPTS -XX:ArchiveClassesAtExit="$ARCHIVE" -cp "$CLASSPATH" "$MAIN_CLASS" "${APP_ARGS[@]}" >/dev/null
+    CDS_OPTS=(-XX:SharedArchiveFile="$ARCHIVE")
+else
+    echo "JDK $JAVA_MAJOR has no dynamic AppCDS; measuring without an archive"
+fi
+
+uptimes=()
+rss=()
+for i in $(seq 1 "$RUNS"); do
+    # shellcheck disable=SC2086
+    line=$(java $JAVA_OPTS "${CDS_OPTS[@]}" -cp "$CLASSPATH" "$MAIN_CLASS" "${APP_ARGS[@]}" 2>&1 | grep -o 'STARTUP_METRICS.*')
+    uptimes+=("$(sed -E 's/.*uptimeMs=([0-9]+).*/\1/' <<<"$line")")
+    rss+=("$(sed -E 's/.*rssKb=(-?[0-9]+).*/\1/' <<<"$line")")
+    echo "run $i: $line"
+done
+
+median() { printf '%s\n' "$@" | sort -n | awk '{a[NR]=$1} END {print a[int((NR+1)/2)]}'; }
+best() { printf '%s\n' "$@" | sort -n | head -1; }
+
+median_ms=$(median "${uptimes[@]}")
+median_rss_mb=$(( $(median "${rss[@]}") / 1024 ))
+echo "startup: best $(best "${uptimes[@]}") ms, median ${median_ms} ms (target ${STARTUP_TARGET_MS} ms)"
+echo "rss:     median ${median_rss_mb} MB (target ${RSS_TARGET_MB} MB)"
+if [ ${#CDS_OPTS[@]} -gt 0 ]; then
+    echo "AppCDS archive: $ARCHIVE, classpath unpacked in $APP_DIR"
+fi
+
+if [ "$STARTUP_ENFORCE" = "true" ]; then
+    if [ "$median_ms" -gt "$STARTUP_TARGET_MS" ] || [ "$median_rss_mb" -gt "$RSS_TARGET_MB" ]; then
+        echo "Startup targets not met" >&2
+        exit 1
+    fi
+fi
@@ -0,0 +1,9 @@
+package com.homeinventory.audit;
+
+public enum AuditAction {
+    CREATE,
+    UPDATE,
+    DELETE,
+    /** State of an entity at the retention cutoff, written by compaction in place of its older events. */
+    SNAPSHOT
+}
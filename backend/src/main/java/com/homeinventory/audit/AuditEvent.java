@@ -0,0 +1,37 @@
+package com.homeinventory.audit;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * One line of the audit log: which entity changed, how, and the per-field diff.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AuditEvent {
+    private LocalDateTime timestamp;
+
+    private String tenantId;
+
+    private AuditAction action;
+
+    private String entityType;
+
+    private Long entityId;
+
+    private Map<String, Change> changes = new LinkedHashMap<>();
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Change {
+        private Object from;
+
+        private Object to;
+    }
+}
@@ -0,0 +1,120 @@
+package com.homeinventory.audit;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One segment file of the audit log and its index: the byte offset of every line, by entity.
+ *
+ * The index of the active segment lives in memory and is updated after each batch is
+ * flushed. When the segment is sealed it is saved next to the log as
+ * {@code audit-NNNNNN.idx} (one {@code tenant/type/id<TAB>offset,offset...} line per entity),
+ * so that a restart does not have to re-read the whole log.
+ */
+final class AuditSegment {
+    final int number;
+
+    final Path path;
+
+    private final Map<String, List<Long>> offsetsByEntity = new HashMap<>();
+
+    private LocalDateTime lastTimestamp;
+
+    AuditSegment(int number, Path path) {
+        this.number = number;
+        this.path = path;
+    }
+
+    static String entityKey(String tenantId, String entityType, Long entityId) {
+        return tenantId + "/" + entityType + "/" + entityId;
+    }
+
+    synchronized void add(AuditEvent event, long offset) {
+        offsetsByEntity.computeIfAbsent(entityKey(event.getTenantId(), event.getEntityType(), event.getEntityId()),
+                key -> new ArrayList<>(2)).add(offset);
+        if (lastTimestamp == null || event.getTimestamp().isAfter(lastTimestamp)) {
+            lastTimestamp = event.getTimestamp();
+        }
+    }
+
+    synchronized List<Long> offsets(String entityKey) {
+        List<Long> offsets = offsetsByEntity.get(entityKey);
+        return offsets != null ? new ArrayList<>(offsets) : new ArrayList<Long>();
+    }
+
+    synchronized LocalDateTime getLastTimestamp() {
+        return lastTimestamp;
+    }
+
+    /** True if every entity has a single event, i.e. compacting the segment alone would not shrink it. */
+    synchronized boolean isCompact() {
+        for (List<Long> offsets : offsetsByEntity.values()) {
+            if (offsets.size() > 1) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    Path indexPath() {
+        String name = path.getFileName().toString();
+        return path.resolveSibling(name.substring(0, name.length() - ".log".length()) + ".idx");
+    }
+
+    synchronized void writeIndex() throws IOException {
+        Path temp = indexPath().resolveSibling(indexPath().getFileName() + ".tmp");
+        try (BufferedWriter writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+            writer.write(lastTimestamp == null ? "" : lastTimestamp.toString());
+            writer.newLine();
+            for (Map.Entry<String, List<Long>> entry : offsetsByEntity.entrySet()) {
+                writer.write(entry.getKey());
+                writer.write('\t');
+                String separator = "";
+                for (Long offset : entry.getValue()) {
+                    writer.write(separator);
+                    writer.write(Long.toString(offset));
+                    separator = ",";
+                }
+                writer.newLine();
+            }
+        }
+        Files.move(temp, indexPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * @return false if there is no saved index or it cannot be parsed; the segment must then be re-scanned
+     */
+    synchronized boolean readIndex() {
+        if (!Files.exists(indexPath())) {
+            return false;
+        }
+        try (BufferedReader reader = Files.newBufferedReader(indexPath(), StandardCharsets.UTF_8)) {
+            String header = reader.readLine();
+            lastTimestamp = header == null || header.isEmpty() ? null : LocalDateTime.parse(header);
+            String line;
+            while ((line = reader.readLine()) != null) {
+                int tab = line.indexOf('\t');
+                List<Long> offsets = new ArrayList<>(2);
+                for (String offset : line.substring(tab + 1).split(",")) {
+                    offsets.add(Long.parseLong(offset));
+                }
+                offsetsByEntity.put(line.substring(0, tab), offsets);
+            }
+            return true;
+        } catch (IOException | RuntimeException e) {
+            offsetsByEntity.clear();
+            lastTimestamp = null;
+            return false;
+        }
+    }
+}
@@ -0,0 +1,500 @@
+package com.homeinventory.audit;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.homeinventory.tenant.TenantContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Asynchronous, append-only audit log.
+ *
+ * Controllers hand events to a bounded in-memory queue and return immediately; if the queue
+ * is full the event is dropped and counted rather than blocking the request thread. A single
+ * writer thread drains the queue in batches and appends JSON lines to segment files named
+ * {@code audit-NNNNNN.log}, starting a new segment once the current one reaches the
+ * configured size.
+ *
+ * Every segment is indexed by entity (see {@link AuditSegment}), so reading an entity's
+ * history only reads that entity's lines. Sealed segments are never appended to; once all
+ * their events are older than {@code audit.retention-days}, compaction replaces them with a
+ * single segment holding one {@link AuditAction#SNAPSHOT} per entity that still existed.
+ */
+@Service
+public class AuditService {
+    private static final Logger log = LoggerFactory.getLogger(AuditService.class);
+
+    private static final Pattern SEGMENT_NAME = Pattern.compile("audit-(\\d{6})\\.log");
+
+    private static final Set<String> IGNORED_FIELDS = new HashSet<>(Arrays.asList("createdAt", "updatedAt"));
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${audit.dir:audit}")
+    private String auditDir;
+
+    @Value("${audit.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${audit.batch-size:256}")
+    private int batchSize;
+
+    @Value("${audit.segment-max-bytes:8388608}")
+    private long segmentMaxBytes;
+
+    @Value("${audit.retention-days:365}")
+    private long retentionDays;
+
+    private BlockingQueue<AuditEvent> queue;
+
+    private final AtomicLong droppedEvents = new AtomicLong();
+
+    private volatile boolean running;
+
+    private Thread writerThread;
+
+    /** By segment number; the last entry is the segment being appended to. */
+    private final ConcurrentSkipListMap<Integer, AuditSegment> segments = new ConcurrentSkipListMap<>();
+
+    /** Readers share it; compaction takes it exclusively while it swaps segment files. */
+    private final ReadWriteLock segmentLock = new ReentrantReadWriteLock();
+
+    @PostConstruct
+    public void start() throws IOException {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        Files.createDirectories(Paths.get(auditDir));
+        loadSegments();
+
+        running = true;
+        writerThread = new Thread(this::drainLoop, "audit-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    /**
+     * Lets the writer finish on its own: the poll timeout ends the loop once the queue is
+     * empty. Interrupting it could close the segment's channel in the middle of a batch.
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        writerThread.join(TimeUnit.SECONDS.toMillis(5));
+    }
+
+    public void recordCreate(Object entity) {
+        record(AuditAction.CREATE, entity, Collections.<String, Object>emptyMap(), snapshot(entity));
+    }
+
+    /**
+     * @param before snapshot taken with {@link #snapshot(Object)} before the entity was modified
+     */
+    public void recordUpdate(Map<String, Object> before, Object entity) {
+        record(AuditAction.UPDATE, entity, before, snapshot(entity));
+    }
+
+    public void recordDelete(Object entity) {
+        record(AuditAction.DELETE, entity, snapshot(entity), Collections.<String, Object>emptyMap());
+    }
+
+    /**
+     * Flattens an entity into field values, replacing nested relations by their ids
+     * (e.g. {@code storageLocation} becomes {@code storageLocationId}).
+     */
+    public Map<String, Object> snapshot(Object entity) {
+        Map<String, Object> raw = objectMapper.convertValue(entity, new TypeReference<LinkedHashMap<String, Object>>() {});
+        Map<String, Object> flat = new LinkedHashMap<>();
+        for (Map.Entry<String, Object> entry : raw.entrySet()) {
+            if (IGNORED_FIELDS.contains(entry.getKey())) {
+                continue;
+            }
+            if (entry.getValue() instanceof Map) {
+                flat.put(entry.getKey() + "Id", ((Map<?, ?>) entry.getValue()).get("id"));
+            } else {
+                flat.put(entry.getKey(), entry.getValue());
+            }
+        }
+        return flat;
+    }
+
+    /**
+     * Returns every event recorded for the given entity in the current household, oldest
+     * first. Events still waiting in the queue are not visible until the writer has
+     * flushed them.
+     *
+     * Timestamps are taken on the request thread, so concurrent changes of one entity can
+     * reach the log out of order; the result is sorted by timestamp (stable, so equal
+     * timestamps keep log order).
+     */
+    public List<AuditEvent> history(String entityType, Long entityId) {
+        String entityKey = AuditSegment.entityKey(TenantContext.getTenantId(), entityType, entityId);
+        List<AuditEvent> events = new ArrayList<>();
+        segmentLock.readLock().lock();
+        try {
+            for (AuditSegment segment : segments.values()) {
+                List<Long> offsets = segment.offsets(entityKey);
+                if (offsets.isEmpty()) {
+                    continue;
+                }
+                try (FileChannel channel = FileChannel.open(segment.path, StandardOpenOption.READ)) {
+                    for (Long offset : offsets) {
+                        events.add(readEventAt(channel, offset));
+                    }
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            segmentLock.readLock().unlock();
+        }
+        events.sort(Comparator.comparing(AuditEvent::getTimestamp));
+        return events;
+    }
+
+    /**
+     * Replays the item's history up to {@code at}. Returns null if the item did not exist
+     * at that time (not yet created, or already deleted), or if {@code at} is before the
+     * retention window and the item's state there was compacted away.
+     */
+    public Integer quantityAt(Long itemId, LocalDateTime at) {
+        Integer quantity = null;
+        for (AuditEvent event : history("Item", itemId)) {
+            if (event.getTimestamp().isAfter(at)) {
+                break;
+            }
+            if (event.getAction() == AuditAction.DELETE) {
+                quantity = null;
+            } else if (event.getChanges().containsKey("quantity")) {
+                Object value = event.getChanges().get("quantity").getTo();
+                quantity = value == null ? null : ((Number) value).intValue();
+            }
+        }
+        return quantity;
+    }
+
+    public long getDroppedEvents() {
+        return droppedEvents.get();
+    }
+
+    /**
+     * Folds the oldest sealed segments whose events are all past the retention window into
+     * one segment with a {@link AuditAction#SNAPSHOT} per surviving entity; entities deleted
+     * within those segments are dropped. The active segment is never touched.
+     */
+    @Scheduled(initialDelayString = "${audit.compaction-initial-delay-ms:600000}",
+            fixedDelayString = "${audit.compaction-interval-ms:86400000}")
+    public void compact() {
+        if (retentionDays <= 0) {
+            return;
+        }
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(retentionDays);
+        List<AuditSegment> all = new ArrayList<>(segments.values());
+        List<AuditSegment> expired = new ArrayList<>();
+        for (int i = 0; i < all.size() - 1; i++) {
+            LocalDateTime last = all.get(i).getLastTimestamp();
+            if (last != null && !last.isBefore(cutoff)) {
+                break;
+            }
+            expired.add(all.get(i));
+        }
+        if (expired.isEmpty() || (expired.size() == 1 && expired.get(0).isCompact())) {
+            return;
+        }
+        try {
+            compact(expired);
+        } catch (IOException e) {
+            log.error("Audit log compaction failed", e);
+        }
+    }
+
+    private void compact(List<AuditSegment> expired) throws IOException {
+        Map<String, AuditEvent> snapshots = new LinkedHashMap<>();
+        for (AuditSegment segment : expired) {
+            readSegment(segment.path, (event, offset) -> {
+                String key = AuditSegment.entityKey(event.getTenantId(), event.getEntityType(), event.getEntityId());
+                if (event.getAction() == AuditAction.DELETE) {
+                    snapshots.remove(key);
+                    return;
+                }
+                AuditEvent snapshot = snapshots.computeIfAbsent(key, k -> new AuditEvent(event.getTimestamp(),
+                        event.getTenantId(), AuditAction.SNAPSHOT, event.getEntityType(), event.getEntityId(),
+                        new LinkedHashMap<>()));
+                for (Map.Entry<String, AuditEvent.Change> change : event.getChanges().entrySet()) {
+                    snapshot.getChanges().put(change.getKey(), new AuditEvent.Change(null, change.getValue().getTo()));
+                }
+                if (event.getTimestamp().isAfter(snapshot.getTimestamp())) {
+                    snapshot.setTimestamp(event.getTimestamp());
+                }
+            });
+        }
+
+        // The compacted segment takes the number of the newest one it replaces, keeping segment order
+        AuditSegment target = expired.get(expired.size() - 1);
+        AuditSegment compacted = new AuditSegment(target.number, target.path);
+        Path temp = target.path.resolveSibling(target.path.getFileName() + ".tmp");
+        writeEvents(temp, 0, new ArrayList<>(snapshots.values()), compacted, StandardOpenOption.TRUNCATE_EXISTING);
+
+        segmentLock.writeLock().lock();
+        try {
+            // Without an index file a crash before writeIndex() leads to a re-scan, not stale offsets
+            Files.deleteIfExists(target.indexPath());
+            Files.move(temp, target.path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            segments.put(target.number, compacted);
+            compacted.writeIndex();
+            for (AuditSegment segment : expired) {
+                if (segment != target) {
+                    Files.deleteIfExists(segment.path);
+                    Files.deleteIfExists(segment.indexPath());
+                    segments.remove(segment.number);
+                }
+            }
+        } finally {
+            segmentLock.writeLock().unlock();
+        }
+        log.info("Audit log compaction: {} segments folded into {} with {} entities",
+                expired.size(), target.path.getFileName(), snapshots.size());
+    }
+
+    private void record(AuditAction action, Object entity, Map<String, Object> before, Map<String, Object> after) {
+        Map<String, AuditEvent.Change> changes = new LinkedHashMap<>();
+        Set<String> fields = new LinkedHashSet<>(before.keySet());
+        fields.addAll(after.keySet());
+        for (String field : fields) {
+            Object from = before.get(field);
+            Object to = after.get(field);
+            if (!Objects.equals(from, to)) {
+                changes.put(field, new AuditEvent.Change(from, to));
+            }
+        }
+        if (action == AuditAction.UPDATE && changes.isEmpty()) {
+            return;
+        }
+
+        Object id = action == AuditAction.DELETE ? before.get("id") : after.get("id");
+        AuditEvent event = new AuditEvent(LocalDateTime.now(), TenantContext.getTenantId(), action,
+                entity.getClass().getSimpleName(), id == null ? null : ((Number) id).longValue(), changes);
+        if (!queue.offer(event) && droppedEvents.incrementAndGet() % 1000 == 1) {
+            log.warn("Audit queue full, {} events dropped so far", droppedEvents.get());
+        }
+    }
+
+    private void drainLoop() {
+        List<AuditEvent> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                AuditEvent first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+            } catch (InterruptedException e) {
+                continue;
+            }
+            queue.drainTo(batch, batchSize - batch.size());
+            try {
+                append(batch);
+            } catch (IOException e) {
+                log.error("Failed to write {} audit events", batch.size(), e);
+            }
+            batch.clear();
+        }
+    }
+
+    private void append(List<AuditEvent> batch) throws IOException {
+        if (batch.isEmpty()) {
+            return;
+        }
+        AuditSegment segment = segments.lastEntry().getValue();
+        if (Files.exists(segment.path) && Files.size(segment.path) >= segmentMaxBytes) {
+            segment = seal(segment);
+        }
+        long offset = Files.exists(segment.path) ? Files.size(segment.path) : 0;
+        writeEvents(segment.path, offset, batch, segment, StandardOpenOption.APPEND);
+    }
+
+    /** Saves the segment's index and starts the next one. */
+    private AuditSegment seal(AuditSegment segment) {
+        try {
+            segment.writeIndex();
+        } catch (IOException e) {
+            // Rebuilt from the log on the next start
+            log.warn("Could not save audit index {}: {}", segment.indexPath(), e.getMessage());
+        }
+        AuditSegment next = new AuditSegment(segment.number + 1, segmentPath(segment.number + 1));
+        segments.put(next.number, next);
+        return next;
+    }
+
+    /**
+     * Writes the events as JSON lines starting at {@code offset} and, once they are on disk,
+     * adds them to {@code index} so readers never see a partial line.
+     */
+    private void writeEvents(Path path, long offset, List<AuditEvent> events, AuditSegment index,
+                             StandardOpenOption mode) throws IOException {
+        long[] offsets = new long[events.size()];
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(path,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, mode))) {
+            for (int i = 0; i < events.size(); i++) {
+                byte[] line = objectMapper.writeValueAsBytes(events.get(i));
+                offsets[i] = offset;
+                out.write(line);
+                out.write('\n');
+                offset += line.length + 1;
+            }
+        }
+        for (int i = 0; i < events.size(); i++) {
+            index.add(events.get(i), offsets[i]);
+        }
+    }
+
+    /**
+     * Loads the saved indexes of sealed segments, re-scanning those without one, and always
+     * re-scans the active segment. If that segment ends in a partially written line it is
+     * sealed, so new events are not appended to the broken line.
+     */
+    private void loadSegments() throws IOException {
+        List<Path> paths = listSegments();
+        for (int i = 0; i < paths.size(); i++) {
+            Path path = paths.get(i);
+            AuditSegment segment = new AuditSegment(segmentNumber(path), path);
+            boolean active = i == paths.size() - 1;
+            if (active || !segment.readIndex()) {
+                boolean complete = readSegment(path, segment::add);
+                if (!active) {
+                    segment.writeIndex();
+                } else if (!complete) {
+                    segments.put(segment.number, segment);
+                    seal(segment);
+                    continue;
+                }
+            }
+            segments.put(segment.number, segment);
+        }
+        if (segments.isEmpty()) {
+            segments.put(1, new AuditSegment(1, segmentPath(1)));
+        }
+    }
+
+    /**
+     * Calls {@code consumer} for every parseable line in file order.
+     *
+     * @return false if the file ends in a partially written line
+     */
+    private boolean readSegment(Path path, EventConsumer consumer) throws IOException {
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(path))) {
+            ByteArrayOutputStream line = new ByteArrayOutputStream(512);
+            long position = 0;
+            long lineStart = 0;
+            int b;
+            while ((b = in.read()) != -1) {
+                position++;
+                if (b != '\n') {
+                    line.write(b);
+                    continue;
+                }
+                try {
+                    consumer.accept(objectMapper.readValue(line.toByteArray(), AuditEvent.class), lineStart);
+                } catch (IOException e) {
+                    log.warn("Skipping unreadable audit line at {}:{}", path.getFileName(), lineStart);
+                }
+                line.reset();
+                lineStart = position;
+            }
+            return line.size() == 0;
+        }
+    }
+
+    private AuditEvent readEventAt(FileChannel channel, long offset) throws IOException {
+        ByteArrayOutputStream line = new ByteArrayOutputStream(512);
+        ByteBuffer buffer = ByteBuffer.allocate(1024);
+        long position = offset;
+        boolean endOfLine = false;
+        while (!endOfLine) {
+            buffer.clear();
+            int read = channel.read(buffer, position);
+            if (read <= 0) {
+                break;
+            }
+            for (int i = 0; i < read && !endOfLine; i++) {
+                byte b = buffer.get(i);
+                if (b == '\n') {
+                    endOfLine = true;
+                } else {
+                    line.write(b);
+                }
+            }
+            position += read;
+        }
+        return objectMapper.readValue(line.toByteArray(), AuditEvent.class);
+    }
+
+    private List<Path> listSegments() throws IOException {
+        List<Path> paths = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(Paths.get(auditDir), "audit-*.log")) {
+            for (Path path : stream) {
+                if (SEGMENT_NAME.matcher(path.getFileName().toString()).matches()) {
+                    paths.add(path);
+                }
+            }
+        }
+        Collections.sort(paths);
+        return paths;
+    }
+
+    private int segmentNumber(Path segment) {
+        Matcher matcher = SEGMENT_NAME.matcher(segment.getFileName().toString());
+        matcher.matches();
+        return Integer.parseInt(matcher.group(1));
+    }
+
+    private Path segmentPath(int index) {
+        return Paths.get(auditDir, String.format("audit-%06d.log", index));
+    }
+
+    private interface EventConsumer {
+        void accept(AuditEvent event, long offset);
+    }
+}
@@ -0,0 +1,54 @@
+package com.homeinventory.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+/**
+ * Logs JVM uptime and resident memory once the application is ready to serve requests.
+ * The {@code STARTUP_METRICS} line is parsed by {@code scripts/startup-benchmark.sh};
+ * with {@code app.startup.exit-after-ready=true} the application exits right after it.
+ */
+@Component
+public class StartupReporter implements ApplicationListener<ApplicationReadyEvent> {
+    private static final Logger log = LoggerFactory.getLogger(StartupReporter.class);
+
+    @Value("${app.startup.exit-after-ready:false}")
+    private boolean exitAfterReady;
+
+    @Override
+    public void onApplicationEvent(ApplicationReadyEvent event) {
+        long uptimeMs = ManagementFactory.getRuntimeMXBean().getUptime();
+        log.info("STARTUP_METRICS uptimeMs={} rssKb={}", uptimeMs, readRssKb());
+
+        if (exitAfterReady) {
+            System.exit(SpringApplication.exit(event.getApplicationContext(), () -> 0));
+        }
+    }
+
+    /**
+     * @return resident set size from /proc, or -1 where that is unavailable (non-Linux)
+     */
+    private static long readRssKb() {
+        try {
+            for (String line : Files.readAllLines(Paths.get("/proc/self/status"), StandardCharsets.UTF_8)) {
+                if (line.startsWith("VmRSS:")) {
+                    return Long.parseLong(line.replaceAll("[^0-9]", ""));
+                }
+            }
+        } catch (IOException | NumberFormatException e) {
+            // fall through
+        }
+        return -1;
+    }
+}
@@ -1,11 +1,14 @@
 package com.homeinventory.controller;
 
+import com.homeinventory.audit.AuditService;
 import com.homeinventory.entity.Address;
 import com.homeinventory.repository.AddressRepository;
+import com.homeinventory.traffic.SingleFlight;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/addresses")
@@ -14,40 +17,54 @@ public class AddressController {
     @Autowired
     private AddressRepository addressRepository;
 
+    @Autowired
+    private AuditService auditService;
+
+    @Autowired
+    private SingleFlight singleFlight;
+
     @GetMapping
     public List<Address> getAllAddresses() {
-        return addressRepository.findAll();
+        return singleFlight.execute("addresses", addressRepository::findAllInTenant);
     }
 
     @GetMapping("/{id}")
     public ResponseEntity<Address> getAddressById(@PathVariable Long id) {
-        return addressRepository.findById(id)
+        return addressRepository.findByIdInTenant(id)
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
 
     @PostMapping
     public Address createAddress(@RequestBody Address address) {
-        return addressRepository.save(address);
+        address.setId(null);
+        Address saved = addressRepository.save(address);
+        auditService.recordCreate(saved);
+        return saved;
     }
 
     @PutMapping("/{id}")
     public ResponseEntity<Address> updateAddress(@PathVariable Long id, @RequestBody Address addressDetails) {
-        return addressRepository.findById(id)
+        return addressRepository.findByIdInTenant(id)
                 .map(address -> {
+                    Map<String, Object> before = auditService.snapshot(address);
                     address.setName(addressDetails.getName());
                     address.setAddress(addressDetails.getAddress());
-                    return ResponseEntity.ok(addressRepository.save(address));
+                    Address saved = addressRepository.save(address);
+                    auditService.recordUpdate(before, saved);
+                    return ResponseEntity.ok(saved);
                 })
                 .orElse(ResponseEntity.notFound().build());
     }
 
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteAddress(@PathVariable Long id) {
-        if (addressRepository.existsById(id)) {
-            addressRepository.deleteById(id);
-            return ResponseEntity.noContent().build();
-        }
-        return ResponseEntity.notFound().build();
+        return addressRepository.findByIdInTenant(id)
+                .map(existing -> {
+                    addressRepository.delete(existing);
+                    auditService.recordDelete(existing);
+                    return ResponseEntity.noContent().<Void>build();
+                })
+                .orElse(ResponseEntity.notFound().build());
     }
 }
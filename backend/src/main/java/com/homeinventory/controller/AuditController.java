@@ -0,0 +1,41 @@
+package com.homeinventory.controller;
+
+import com.homeinventory.audit.AuditEvent;
+import com.homeinventory.audit.AuditService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/audit")
+@CrossOrigin(origins = "*")
+public class AuditController {
+    @Autowired
+    private AuditService auditService;
+
+    @GetMapping("/item/{itemId}")
+    public List<AuditEvent> getItemHistory(@PathVariable Long itemId) {
+        return auditService.history("Item", itemId);
+    }
+
+    @GetMapping("/item/{itemId}/quantity")
+    public ResponseEntity<Map<String, Object>> getItemQuantityAt(
+            @PathVariable Long itemId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime at) {
+        LocalDateTime pointInTime = at != null ? at : LocalDateTime.now();
+        Integer quantity = auditService.quantityAt(itemId, pointInTime);
+        if (quantity == null) {
+            return ResponseEntity.notFound().build();
+        }
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("itemId", itemId);
+        body.put("at", pointInTime);
+        body.put("quantity", quantity);
+        return ResponseEntity.ok(body);
+    }
+}
@@ -1,11 +1,14 @@
 package com.homeinventory.controller;
 
+import com.homeinventory.audit.AuditService;
 import com.homeinventory.entity.Category;
 import com.homeinventory.repository.CategoryRepository;
+import com.homeinventory.traffic.SingleFlight;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/categories")
@@ -14,40 +17,54 @@ public class CategoryController {
     @Autowired
     private CategoryRepository categoryRepository;
 
+    @Autowired
+    private AuditService auditService;
+
+    @Autowired
+    private SingleFlight singleFlight;
+
     @GetMapping
     public List<Category> getAllCategories() {
-        return categoryRepository.findAll();
+        return singleFlight.execute("categories", categoryRepository::findAllInTenant);
     }
 
     @GetMapping("/{id}")
     public ResponseEntity<Category> getCategoryById(@PathVariable Long id) {
-        return categoryRepository.findById(id)
+        return categoryRepository.findByIdInTenant(id)
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
 
     @PostMapping
     public Category createCategory(@RequestBody Category category) {
-        return categoryRepository.save(category);
+        category.setId(null);
+        Category saved = categoryRepository.save(category);
+        auditService.recordCreate(saved);
+        return saved;
     }
 
     @PutMapping("/{id}")
     public ResponseEntity<Category> updateCategory(@PathVariable Long id, @RequestBody Category categoryDetails) {
-        return categoryRepository.findById(id)
+        return categoryRepository.findByIdInTenant(id)
                 .map(category -> {
+                    Map<String, Object> before = auditService.snapshot(category);
                     category.setName(categoryDetails.getName());
                     category.setIcon(categoryDetails.getIcon());
-                    return ResponseEntity.ok(categoryRepository.save(category));
+                    Category saved = categoryRepository.save(category);
+                    auditService.recordUpdate(before, saved);
+                    return ResponseEntity.ok(saved);
                 })
                 .orElse(ResponseEntity.notFound().build());
     }
 
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteCategory(@PathVariable Long id) {
-        if (categoryRepository.existsById(id)) {
-            categoryRepository.deleteById(id);
-            return ResponseEntity.noContent().build();
-        }
-        return ResponseEntity.notFound().build();
+        return categoryRepository.findByIdInTenant(id)
+                .map(existing -> {
+                    categoryRepository.delete(existing);
+                    auditService.recordDelete(existing);
+                    return ResponseEntity.noContent().<Void>build();
+                })
+                .orElse(ResponseEntity.notFound().build());
     }
 }
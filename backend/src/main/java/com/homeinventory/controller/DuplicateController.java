@@ -0,0 +1,37 @@
+package com.homeinventory.controller;
+
+import com.homeinventory.duplicate.DuplicateCandidate;
+import com.homeinventory.duplicate.DuplicateDetectionService;
+import com.homeinventory.duplicate.DuplicatePair;
+import com.homeinventory.traffic.SingleFlight;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/duplicates")
+@CrossOrigin(origins = "*")
+public class DuplicateController {
+    @Autowired
+    private DuplicateDetectionService duplicateDetectionService;
+
+    @Autowired
+    private SingleFlight singleFlight;
+
+    @GetMapping
+    public ResponseEntity<List<DuplicatePair>> getLikelyDuplicates(@RequestParam(defaultValue = "100") int limit) {
+        if (limit < 1 || limit > 1000) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(singleFlight.execute("duplicates/" + limit,
+                () -> duplicateDetectionService.findLikelyDuplicates(limit)));
+    }
+
+    @GetMapping("/item/{itemId}")
+    public ResponseEntity<List<DuplicateCandidate>> getDuplicatesOfItem(@PathVariable Long itemId) {
+        return duplicateDetectionService.findDuplicates(itemId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+}
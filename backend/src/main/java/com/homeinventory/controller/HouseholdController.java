@@ -0,0 +1,23 @@
+package com.homeinventory.controller;
+
+import com.homeinventory.tenant.HouseholdKey;
+import com.homeinventory.tenant.HouseholdService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/households")
+@CrossOrigin(origins = "*")
+public class HouseholdController {
+    @Autowired
+    private HouseholdService householdService;
+
+    /**
+     * Creates an empty household; the returned key is shown only this once.
+     */
+    @PostMapping
+    public ResponseEntity<HouseholdKey> createHousehold() {
+        return ResponseEntity.ok(householdService.createHousehold());
+    }
+}
@@ -1,11 +1,21 @@
 package com.homeinventory.controller;
 
+import com.homeinventory.audit.AuditService;
+import com.homeinventory.entity.Category;
 import com.homeinventory.entity.Item;
+import com.homeinventory.entity.ItemPhoto;
+import com.homeinventory.entity.StorageLocation;
+import com.homeinventory.repository.CategoryRepository;
+import com.homeinventory.repository.ItemPhotoRepository;
 import com.homeinventory.repository.ItemRepository;
+import com.homeinventory.repository.StorageLocationRepository;
+import com.homeinventory.traffic.SingleFlight;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/items")
@@ -14,53 +24,110 @@ public class ItemController {
     @Autowired
     private ItemRepository itemRepository;
 
+    @Autowired
+    private ItemPhotoRepository itemPhotoRepository;
+
+    @Autowired
+    private StorageLocationRepository storageLocationRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private AuditService auditService;
+
+    @Autowired
+    private SingleFlight singleFlight;
+
     @GetMapping
     public List<Item> getAllItems() {
-        return itemRepository.findAll();
+        return singleFlight.execute("items", itemRepository::findAllInTenant);
     }
 
     @GetMapping("/location/{locationId}")
     public List<Item> getItemsByLocation(@PathVariable Long locationId) {
-        return itemRepository.findByStorageLocationId(locationId);
+        return singleFlight.execute("items/location/" + locationId,
+                () -> itemRepository.findByStorageLocationIdInTenant(locationId));
     }
 
     @GetMapping("/search")
     public List<Item> searchItems(@RequestParam String keyword) {
-        return itemRepository.searchByKeyword(keyword);
+        return singleFlight.execute("items/search/" + keyword, () -> itemRepository.searchByKeywordInTenant(keyword));
     }
 
     @GetMapping("/{id}")
     public ResponseEntity<Item> getItemById(@PathVariable Long id) {
-        return itemRepository.findById(id)
+        return itemRepository.findByIdInTenant(id)
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
 
     @PostMapping
-    public Item createItem(@RequestBody Item item) {
-        return itemRepository.save(item);
+    public ResponseEntity<Item> createItem(@RequestBody Item item) {
+        item.setId(null);
+        if (!resolveReferences(item)) {
+            return ResponseEntity.badRequest().build();
+        }
+        Item saved = itemRepository.save(item);
+        auditService.recordCreate(saved);
+        return ResponseEntity.ok(saved);
     }
 
     @PutMapping("/{id}")
     public ResponseEntity<Item> updateItem(@PathVariable Long id, @RequestBody Item itemDetails) {
-        return itemRepository.findById(id)
+        return itemRepository.findByIdInTenant(id)
                 .map(item -> {
+                    if (!resolveReferences(itemDetails)) {
+                        return ResponseEntity.badRequest().<Item>build();
+                    }
+                    Map<String, Object> before = auditService.snapshot(item);
                     item.setName(itemDetails.getName());
                     item.setDescription(itemDetails.getDescription());
                     item.setQuantity(itemDetails.getQuantity());
                     item.setCategory(itemDetails.getCategory());
                     item.setStorageLocation(itemDetails.getStorageLocation());
-                    return ResponseEntity.ok(itemRepository.save(item));
+                    Item saved = itemRepository.save(item);
+                    auditService.recordUpdate(before, saved);
+                    return ResponseEntity.ok(saved);
                 })
                 .orElse(ResponseEntity.notFound().build());
     }
 
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteItem(@PathVariable Long id) {
-        if (itemRepository.existsById(id)) {
-            itemRepository.deleteById(id);
-            return ResponseEntity.noContent().build();
+        return itemRepository.findByIdInTenant(id)
+                .map(existing -> {
+                    // Photo files are left for PhotoMaintenanceService to collect as orphans
+                    List<ItemPhoto> photos = itemPhotoRepository.findByItemIdInTenant(id);
+                    itemPhotoRepository.deleteAll(photos);
+                    photos.forEach(auditService::recordDelete);
+                    itemRepository.delete(existing);
+                    auditService.recordDelete(existing);
+                    return ResponseEntity.noContent().<Void>build();
+                })
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Replaces the storage location and category sent in the body by the household's own
+     * rows, so that an item cannot point at another household's data. Returns false if
+     * either is not in the current household.
+     */
+    private boolean resolveReferences(Item item) {
+        if (item.getStorageLocation() != null) {
+            Optional<StorageLocation> location = storageLocationRepository.findByIdInTenant(item.getStorageLocation().getId());
+            if (!location.isPresent()) {
+                return false;
+            }
+            item.setStorageLocation(location.get());
+        }
+        if (item.getCategory() != null) {
+            Optional<Category> category = categoryRepository.findByIdInTenant(item.getCategory().getId());
+            if (!category.isPresent()) {
+                return false;
+            }
+            item.setCategory(category.get());
         }
-        return ResponseEntity.notFound().build();
+        return true;
     }
 }
@@ -1,11 +1,15 @@
 package com.homeinventory.controller;
 
+import com.homeinventory.audit.AuditService;
 import com.homeinventory.entity.Item;
 import com.homeinventory.entity.ItemPhoto;
+import com.homeinventory.maintenance.PhotoStorageQuota;
 import com.homeinventory.repository.ItemPhotoRepository;
 import com.homeinventory.repository.ItemRepository;
+import com.homeinventory.traffic.SingleFlight;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
@@ -15,7 +19,10 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 @RestController
@@ -28,22 +35,46 @@ public class ItemPhotoController {
     @Autowired
     private ItemRepository itemRepository;
 
+    @Autowired
+    private AuditService auditService;
+
+    @Autowired
+    private PhotoStorageQuota photoStorageQuota;
+
+    @Autowired
+    private SingleFlight singleFlight;
+
     @Value("${file.upload-dir}")
     private String uploadDir;
 
     @GetMapping
     public List<ItemPhoto> getAllPhotos() {
-        return itemPhotoRepository.findAll();
+        return itemPhotoRepository.findAllInTenant();
     }
 
     @GetMapping("/item/{itemId}")
     public List<ItemPhoto> getPhotosByItem(@PathVariable Long itemId) {
-        return itemPhotoRepository.findByItemId(itemId);
+        return singleFlight.execute("item-photos/item/" + itemId, () -> itemPhotoRepository.findByItemIdInTenant(itemId));
+    }
+
+    /**
+     * Photos of every item in a room, keyed by item id, so a room page needs one request
+     * instead of one per item. Items without photos are absent.
+     */
+    @GetMapping("/room/{roomId}")
+    public Map<Long, List<ItemPhoto>> getPhotosByRoom(@PathVariable Long roomId) {
+        return singleFlight.execute("item-photos/room/" + roomId, () -> {
+            Map<Long, List<ItemPhoto>> photosByItem = new LinkedHashMap<>();
+            for (ItemPhoto photo : itemPhotoRepository.findByRoomIdInTenant(roomId)) {
+                photosByItem.computeIfAbsent(photo.getItem().getId(), id -> new ArrayList<>()).add(photo);
+            }
+            return photosByItem;
+        });
     }
 
     @GetMapping("/{id}")
     public ResponseEntity<ItemPhoto> getPhotoById(@PathVariable Long id) {
-        return itemPhotoRepository.findById(id)
+        return itemPhotoRepository.findByIdInTenant(id)
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
@@ -53,10 +84,14 @@ public class ItemPhotoController {
         if (file.isEmpty()) {
             return ResponseEntity.badRequest().body("Please select a file to upload");
         }
+        if (!photoStorageQuota.tryReserve(file.getSize())) {
+            return ResponseEntity.status(HttpStatus.INSUFFICIENT_STORAGE).body("Photo storage quota exceeded");
+        }
 
+        boolean stored = false;
         try {
             // Find the item
-            Item item = itemRepository.findById(itemId)
+            Item item = itemRepository.findByIdInTenant(itemId)
                     .orElseThrow(() -> new RuntimeException("Item not found"));
 
             // Create upload directory if it doesn't exist
@@ -76,42 +111,54 @@ public class ItemPhotoController {
             Path filePath = Paths.get(uploadDir, filename);
             Files.write(filePath, file.getBytes());
 
-            // Save photo record
+            // Save photo record, removing the file again if that fails
             ItemPhoto itemPhoto = new ItemPhoto();
             itemPhoto.setItem(item);
             itemPhoto.setPhotoPath(filename);
-            ItemPhoto savedPhoto = itemPhotoRepository.save(itemPhoto);
+            ItemPhoto savedPhoto;
+            try {
+                savedPhoto = itemPhotoRepository.save(itemPhoto);
+            } catch (RuntimeException e) {
+                Files.deleteIfExists(filePath);
+                throw e;
+            }
+            stored = true;
+            auditService.recordCreate(savedPhoto);
 
             return ResponseEntity.ok(savedPhoto);
         } catch (IOException e) {
             return ResponseEntity.status(500).body("Failed to upload file: " + e.getMessage());
         } catch (Exception e) {
             return ResponseEntity.status(500).body("Error: " + e.getMessage());
+        } finally {
+            if (!stored) {
+                photoStorageQuota.release(file.getSize());
+            }
         }
     }
 
-    @PostMapping
-    public ItemPhoto createPhoto(@RequestBody ItemPhoto itemPhoto) {
-        return itemPhotoRepository.save(itemPhoto);
-    }
-
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deletePhoto(@PathVariable Long id) {
-        if (itemPhotoRepository.existsById(id)) {
-            ItemPhoto photo = itemPhotoRepository.findById(id).get();
-
-            // Delete physical file
-            try {
-                Path filePath = Paths.get(uploadDir, photo.getPhotoPath());
-                Files.deleteIfExists(filePath);
-            } catch (IOException e) {
-                // Log error but continue with database deletion
-                System.err.println("Failed to delete file: " + e.getMessage());
-            }
-
-            itemPhotoRepository.deleteById(id);
-            return ResponseEntity.noContent().build();
-        }
-        return ResponseEntity.notFound().build();
+        return itemPhotoRepository.findByIdInTenant(id)
+                .map(photo -> {
+                    // Delete physical file; paths are generated by uploadPhoto, but never leave the upload directory
+                    try {
+                        Path uploadRoot = Paths.get(uploadDir).toAbsolutePath().normalize();
+                        Path filePath = uploadRoot.resolve(photo.getPhotoPath()).normalize();
+                        if (filePath.getParent().equals(uploadRoot) && Files.exists(filePath)) {
+                            long size = Files.size(filePath);
+                            Files.delete(filePath);
+                            photoStorageQuota.release(size);
+                        }
+                    } catch (IOException e) {
+                        // Log error but continue with database deletion
+                        System.err.println("Failed to delete file: " + e.getMessage());
+                    }
+
+                    itemPhotoRepository.delete(photo);
+                    auditService.recordDelete(photo);
+                    return ResponseEntity.noContent().<Void>build();
+                })
+                .orElse(ResponseEntity.notFound().build());
     }
 }
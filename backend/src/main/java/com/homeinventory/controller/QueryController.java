@@ -0,0 +1,34 @@
+package com.homeinventory.controller;
+
+import com.homeinventory.query.QueryException;
+import com.homeinventory.query.QueryNode;
+import com.homeinventory.query.QueryService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/query")
+@CrossOrigin(origins = "*")
+public class QueryController {
+    @Autowired
+    private QueryService queryService;
+
+    /**
+     * Example, the rooms of an address with their storage locations and item counts:
+     * <pre>
+     * {"rooms": {"fields": ["id", "name"], "where": {"addressId": 1},
+     *            "include": {"storageLocations": {"fields": ["id", "name", "type"],
+     *                                             "include": {"items": {"count": true}}}}}}
+     * </pre>
+     */
+    @PostMapping
+    public ResponseEntity<?> query(@RequestBody Map<String, QueryNode> request) {
+        try {
+            return ResponseEntity.ok(queryService.execute(request));
+        } catch (QueryException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+}
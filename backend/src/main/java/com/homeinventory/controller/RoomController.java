@@ -1,11 +1,17 @@
 package com.homeinventory.controller;
 
+import com.homeinventory.audit.AuditService;
+import com.homeinventory.entity.Address;
 import com.homeinventory.entity.Room;
+import com.homeinventory.repository.AddressRepository;
 import com.homeinventory.repository.RoomRepository;
+import com.homeinventory.traffic.SingleFlight;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/rooms")
@@ -14,52 +20,98 @@ public class RoomController {
     @Autowired
     private RoomRepository roomRepository;
 
+    @Autowired
+    private AddressRepository addressRepository;
+
+    @Autowired
+    private AuditService auditService;
+
+    @Autowired
+    private SingleFlight singleFlight;
+
     @GetMapping
     public List<Room> getAllRooms() {
-        return roomRepository.findAll();
+        return singleFlight.execute("rooms", roomRepository::findAllInTenant);
     }
 
     @GetMapping("/address/{addressId}")
     public List<Room> getRoomsByAddress(@PathVariable Long addressId) {
-        return roomRepository.findByAddressId(addressId);
+        return singleFlight.execute("rooms/address/" + addressId,
+                () -> roomRepository.findByAddressIdInTenant(addressId));
     }
 
     @GetMapping("/{id}")
     public ResponseEntity<Room> getRoomById(@PathVariable Long id) {
-        return roomRepository.findById(id)
+        return roomRepository.findByIdInTenant(id)
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
 
     @PostMapping
-    public Room createRoom(@RequestBody Room room) {
-        return roomRepository.save(room);
+    public ResponseEntity<Room> createRoom(@RequestBody Room room) {
+        room.setId(null);
+        if (!resolveReferences(room)) {
+            return ResponseEntity.badRequest().build();
+        }
+        Room saved = roomRepository.save(room);
+        auditService.recordCreate(saved);
+        return ResponseEntity.ok(saved);
     }
 
     @PostMapping("/batch")
-    public List<Room> createRoomsBatch(@RequestBody List<Room> rooms) {
-        return roomRepository.saveAll(rooms);
+    public ResponseEntity<List<Room>> createRoomsBatch(@RequestBody List<Room> rooms) {
+        for (Room room : rooms) {
+            room.setId(null);
+            if (!resolveReferences(room)) {
+                return ResponseEntity.badRequest().build();
+            }
+        }
+        List<Room> saved = roomRepository.saveAll(rooms);
+        saved.forEach(auditService::recordCreate);
+        return ResponseEntity.ok(saved);
     }
 
     @PutMapping("/{id}")
     public ResponseEntity<Room> updateRoom(@PathVariable Long id, @RequestBody Room roomDetails) {
-        return roomRepository.findById(id)
+        return roomRepository.findByIdInTenant(id)
                 .map(room -> {
+                    if (!resolveReferences(roomDetails)) {
+                        return ResponseEntity.badRequest().<Room>build();
+                    }
+                    Map<String, Object> before = auditService.snapshot(room);
                     room.setName(roomDetails.getName());
                     room.setFloorPlanData(roomDetails.getFloorPlanData());
                     room.setAddress(roomDetails.getAddress());
-                    return ResponseEntity.ok(roomRepository.save(room));
+                    Room saved = roomRepository.save(room);
+                    auditService.recordUpdate(before, saved);
+                    return ResponseEntity.ok(saved);
                 })
                 .orElse(ResponseEntity.notFound().build());
     }
 
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteRoom(@PathVariable Long id) {
-        if (roomRepository.existsById(id)) {
-            roomRepository.deleteById(id);
-            return ResponseEntity.noContent().build();
+        return roomRepository.findByIdInTenant(id)
+                .map(existing -> {
+                    roomRepository.delete(existing);
+                    auditService.recordDelete(existing);
+                    return ResponseEntity.noContent().<Void>build();
+                })
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Replaces the address sent in the body by the household's own row, so that a room cannot
+     * point at another household's data. Returns false if it is not in the current household.
+     */
+    private boolean resolveReferences(Room room) {
+        if (room.getAddress() != null) {
+            Optional<Address> address = addressRepository.findByIdInTenant(room.getAddress().getId());
+            if (!address.isPresent()) {
+                return false;
+            }
+            room.setAddress(address.get());
         }
-        return ResponseEntity.notFound().build();
+        return true;
     }
 }
-
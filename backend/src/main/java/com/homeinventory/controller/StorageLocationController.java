@@ -1,11 +1,17 @@
 package com.homeinventory.controller;
 
+import com.homeinventory.audit.AuditService;
+import com.homeinventory.entity.Room;
 import com.homeinventory.entity.StorageLocation;
+import com.homeinventory.repository.RoomRepository;
 import com.homeinventory.repository.StorageLocationRepository;
+import com.homeinventory.traffic.SingleFlight;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/storage-locations")
@@ -14,54 +20,101 @@ public class StorageLocationController {
     @Autowired
     private StorageLocationRepository storageLocationRepository;
 
+    @Autowired
+    private RoomRepository roomRepository;
+
+    @Autowired
+    private AuditService auditService;
+
+    @Autowired
+    private SingleFlight singleFlight;
+
     @GetMapping
     public List<StorageLocation> getAllStorageLocations() {
-        return storageLocationRepository.findAll();
+        return singleFlight.execute("storage-locations", storageLocationRepository::findAllInTenant);
     }
 
     @GetMapping("/room/{roomId}")
     public List<StorageLocation> getStorageLocationsByRoom(@PathVariable Long roomId) {
-        return storageLocationRepository.findByRoomId(roomId);
+        return singleFlight.execute("storage-locations/room/" + roomId,
+                () -> storageLocationRepository.findByRoomIdInTenant(roomId));
     }
 
     @GetMapping("/{id}")
     public ResponseEntity<StorageLocation> getStorageLocationById(@PathVariable Long id) {
-        return storageLocationRepository.findById(id)
+        return storageLocationRepository.findByIdInTenant(id)
                 .map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
 
     @PostMapping
-    public StorageLocation createStorageLocation(@RequestBody StorageLocation storageLocation) {
-        return storageLocationRepository.save(storageLocation);
+    public ResponseEntity<StorageLocation> createStorageLocation(@RequestBody StorageLocation storageLocation) {
+        storageLocation.setId(null);
+        if (!resolveReferences(storageLocation)) {
+            return ResponseEntity.badRequest().build();
+        }
+        StorageLocation saved = storageLocationRepository.save(storageLocation);
+        auditService.recordCreate(saved);
+        return ResponseEntity.ok(saved);
     }
 
     @PostMapping("/batch")
-    public List<StorageLocation> createStorageLocationsBatch(@RequestBody List<StorageLocation> locations) {
-        return storageLocationRepository.saveAll(locations);
+    public ResponseEntity<List<StorageLocation>> createStorageLocationsBatch(@RequestBody List<StorageLocation> locations) {
+        for (StorageLocation location : locations) {
+            location.setId(null);
+            if (!resolveReferences(location)) {
+                return ResponseEntity.badRequest().build();
+            }
+        }
+        List<StorageLocation> saved = storageLocationRepository.saveAll(locations);
+        saved.forEach(auditService::recordCreate);
+        return ResponseEntity.ok(saved);
     }
 
     @PutMapping("/{id}")
     public ResponseEntity<StorageLocation> updateStorageLocation(@PathVariable Long id, @RequestBody StorageLocation details) {
-        return storageLocationRepository.findById(id)
+        return storageLocationRepository.findByIdInTenant(id)
                 .map(location -> {
+                    if (!resolveReferences(details)) {
+                        return ResponseEntity.badRequest().<StorageLocation>build();
+                    }
+                    Map<String, Object> before = auditService.snapshot(location);
                     location.setName(details.getName());
                     location.setType(details.getType());
                     location.setPositionX(details.getPositionX());
                     location.setPositionY(details.getPositionY());
                     location.setRoom(details.getRoom());
-                    return ResponseEntity.ok(storageLocationRepository.save(location));
+                    StorageLocation saved = storageLocationRepository.save(location);
+                    auditService.recordUpdate(before, saved);
+                    return ResponseEntity.ok(saved);
                 })
                 .orElse(ResponseEntity.notFound().build());
     }
 
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteStorageLocation(@PathVariable Long id) {
-        if (storageLocationRepository.existsById(id)) {
-            storageLocationRepository.deleteById(id);
-            return ResponseEntity.noContent().build();
+        return storageLocationRepository.findByIdInTenant(id)
+                .map(existing -> {
+                    storageLocationRepository.delete(existing);
+                    auditService.recordDelete(existing);
+                    return ResponseEntity.noContent().<Void>build();
+                })
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Replaces the room sent in the body by the household's own row, so that a storage
+     * location cannot point at another household's data. Returns false if it is not in the
+     * current household.
+     */
+    private boolean resolveReferences(StorageLocation storageLocation) {
+        if (storageLocation.getRoom() != null) {
+            Optional<Room> room = roomRepository.findByIdInTenant(storageLocation.getRoom().getId());
+            if (!room.isPresent()) {
+                return false;
+            }
+            storageLocation.setRoom(room.get());
         }
-        return ResponseEntity.notFound().build();
+        return true;
     }
 }
-
@@ -0,0 +1,23 @@
+package com.homeinventory.duplicate;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * An item that is likely a duplicate of the one asked about.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DuplicateCandidate {
+    private Long itemId;
+
+    private String name;
+
+    /** Jaccard similarity of the normalized name shingles, 0..1. */
+    private Double nameSimilarity;
+
+    /** Bits differing between the closest pair of photo hashes, 0..64; null when no photo matched. */
+    private Integer photoDistance;
+}
@@ -0,0 +1,257 @@
+package com.homeinventory.duplicate;
+
+import com.homeinventory.entity.Item;
+import com.homeinventory.entity.ItemPhoto;
+import com.homeinventory.repository.ItemPhotoRepository;
+import com.homeinventory.repository.ItemRepository;
+import com.homeinventory.tenant.TenantContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Finds items that were probably entered more than once: similar names (normalized
+ * character shingles, see {@link NameShingles}) or near-identical photos (perceptual hashes,
+ * see {@link PerceptualHash}).
+ *
+ * A background pass rebuilds one {@link DuplicateIndex} per household from two scalar
+ * queries and lists its likely duplicate pairs. Photo hashes are cached by file name, so each
+ * upload is decoded once. Lookups for a single item run
+ * against the last index built, plus the current name and photos of the item asked about,
+ * so a new item can be checked before the next pass.
+ */
+@Service
+public class DuplicateDetectionService {
+    private static final Logger log = LoggerFactory.getLogger(DuplicateDetectionService.class);
+
+    private static final int IN_CHUNK_SIZE = 1000;
+
+    /**
+     * Photos are decoded at roughly this many pixels on the shorter side, which is plenty for
+     * a 9x8 hash: a 12 MP photo becomes ~0.4 MB instead of a ~48 MB image.
+     */
+    private static final int HASH_SOURCE_SIZE = 256;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private ItemPhotoRepository itemPhotoRepository;
+
+    @Value("${file.upload-dir}")
+    private String uploadDir;
+
+    @Value("${duplicates.name-similarity:0.6}")
+    private double minNameSimilarity;
+
+    @Value("${duplicates.photo-max-distance:6}")
+    private int maxPhotoDistance;
+
+    private final Map<String, Long> hashByPath = new ConcurrentHashMap<>();
+
+    /** Files that could not be decoded, so they are not re-read every pass. */
+    private final Set<String> unreadable = ConcurrentHashMap.newKeySet();
+
+    private volatile Map<String, DuplicateIndex> indexByTenant = Collections.emptyMap();
+
+    @Scheduled(initialDelayString = "${duplicates.initial-delay-ms:120000}",
+            fixedDelayString = "${duplicates.interval-ms:900000}")
+    public void rebuildIndexes() {
+        Thread thread = Thread.currentThread();
+        int originalPriority = thread.getPriority();
+        thread.setPriority(Thread.MIN_PRIORITY);
+        try {
+            Map<String, DuplicateIndex> rebuilt = new HashMap<>();
+            int items = 0;
+            for (Object[] row : itemRepository.findAllNames()) {
+                rebuilt.computeIfAbsent((String) row[2], tenant -> new DuplicateIndex())
+                        .addName((Long) row[0], NameShingles.of((String) row[1]));
+                items++;
+            }
+
+            Set<String> seen = new HashSet<>();
+            int photos = 0;
+            for (Object[] row : itemPhotoRepository.findAllPhotoPaths()) {
+                String path = (String) row[1];
+                seen.add(path);
+                Long hash = hashOf(path);
+                DuplicateIndex index = rebuilt.get((String) row[2]);
+                if (hash != null && index != null) {
+                    index.addPhoto((Long) row[0], hash);
+                    photos++;
+                }
+            }
+            hashByPath.keySet().retainAll(seen);
+            unreadable.retainAll(seen);
+            for (DuplicateIndex index : rebuilt.values()) {
+                index.computePairs(minNameSimilarity, maxPhotoDistance);
+            }
+
+            indexByTenant = rebuilt;
+            log.info("Duplicate detection: indexed {} items and {} photos in {} households",
+                    items, photos, rebuilt.size());
+        } finally {
+            thread.setPriority(originalPriority);
+        }
+    }
+
+    /**
+     * @return empty if the item does not exist in the current household
+     */
+    public Optional<List<DuplicateCandidate>> findDuplicates(Long itemId) {
+        Optional<Item> item = itemRepository.findByIdInTenant(itemId);
+        if (!item.isPresent()) {
+            return Optional.empty();
+        }
+        Set<String> shingles = NameShingles.of(item.get().getName());
+        List<Long> photoHashes = new ArrayList<>();
+        for (ItemPhoto photo : itemPhotoRepository.findByItemIdInTenant(itemId)) {
+            Long hash = hashOf(photo.getPhotoPath());
+            if (hash != null) {
+                photoHashes.add(hash);
+            }
+        }
+
+        Map<Long, DuplicateIndex.Match> matches = currentIndex()
+                .match(itemId, shingles, photoHashes, minNameSimilarity, maxPhotoDistance);
+        Map<Long, String> names = currentNames(matches.keySet());
+        List<DuplicateCandidate> candidates = new ArrayList<>();
+        for (Map.Entry<Long, DuplicateIndex.Match> entry : matches.entrySet()) {
+            String name = names.get(entry.getKey());
+            if (name != null) {
+                DuplicateIndex.Match match = entry.getValue();
+                candidates.add(new DuplicateCandidate(entry.getKey(), name, match.nameSimilarity, match.photoDistance));
+            }
+        }
+        candidates.sort(Comparator.comparing(DuplicateCandidate::getPhotoDistance, Comparator.nullsLast(Comparator.naturalOrder()))
+                .thenComparing(DuplicateCandidate::getNameSimilarity, Comparator.reverseOrder()));
+        return Optional.of(candidates);
+    }
+
+    /**
+     * Likely duplicate pairs in the current household as of the last pass, strongest first:
+     * photo matches by distance, then name matches by similarity.
+     */
+    public List<DuplicatePair> findLikelyDuplicates(int limit) {
+        List<DuplicateIndex.Pair> pairs = currentIndex().pairs();
+        List<DuplicatePair> page = new ArrayList<>(Math.min(limit, pairs.size()));
+        for (DuplicateIndex.Pair pair : pairs.subList(0, Math.min(limit, pairs.size()))) {
+            page.add(new DuplicatePair(pair.itemId, null, pair.otherItemId, null,
+                    pair.match.nameSimilarity, pair.match.photoDistance));
+        }
+
+        // Names are read fresh so renamed or deleted items since the last pass show up correctly
+        Set<Long> ids = new HashSet<>();
+        for (DuplicatePair pair : page) {
+            ids.add(pair.getItemId());
+            ids.add(pair.getOtherItemId());
+        }
+        Map<Long, String> names = currentNames(ids);
+        page.removeIf(pair -> !names.containsKey(pair.getItemId()) || !names.containsKey(pair.getOtherItemId()));
+        for (DuplicatePair pair : page) {
+            pair.setItemName(names.get(pair.getItemId()));
+            pair.setOtherItemName(names.get(pair.getOtherItemId()));
+        }
+        return page;
+    }
+
+    private DuplicateIndex currentIndex() {
+        DuplicateIndex index = indexByTenant.get(TenantContext.getTenantId());
+        return index != null ? index : DuplicateIndex.EMPTY;
+    }
+
+    private Map<Long, String> currentNames(Set<Long> itemIds) {
+        Map<Long, String> names = new LinkedHashMap<>();
+        List<Long> chunk = new ArrayList<>(IN_CHUNK_SIZE);
+        for (Long itemId : itemIds) {
+            chunk.add(itemId);
+            if (chunk.size() == IN_CHUNK_SIZE) {
+                putNames(names, chunk);
+                chunk.clear();
+            }
+        }
+        putNames(names, chunk);
+        return names;
+    }
+
+    private void putNames(Map<Long, String> names, List<Long> itemIds) {
+        if (itemIds.isEmpty()) {
+            return;
+        }
+        for (Object[] row : itemRepository.findNamesByIdsInTenant(itemIds)) {
+            names.put((Long) row[0], (String) row[1]);
+        }
+    }
+
+    private Long hashOf(String photoPath) {
+        Long hash = hashByPath.get(photoPath);
+        if (hash != null || unreadable.contains(photoPath)) {
+            return hash;
+        }
+        try {
+            BufferedImage image = readSubsampled(Paths.get(uploadDir, photoPath).toFile());
+            if (image == null) {
+                unreadable.add(photoPath);
+                return null;
+            }
+            hash = PerceptualHash.of(image);
+            hashByPath.put(photoPath, hash);
+            return hash;
+        } catch (IOException | RuntimeException e) {
+            // Missing or corrupt file; ImageIO reports some broken images as runtime exceptions
+            log.debug("Could not hash photo {}: {}", photoPath, e.getMessage());
+            unreadable.add(photoPath);
+            return null;
+        }
+    }
+
+    /**
+     * Decodes only every n-th pixel of every n-th row, so memory stays small whatever the
+     * resolution of the upload.
+     */
+    private static BufferedImage readSubsampled(File file) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(file)) {
+            if (input == null) {
+                return null;
+            }
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                int step = Math.max(1, Math.min(reader.getWidth(0), reader.getHeight(0)) / HASH_SOURCE_SIZE);
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(step, step, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+}
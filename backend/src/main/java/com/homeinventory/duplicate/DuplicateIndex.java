@@ -0,0 +1,129 @@
+package com.homeinventory.duplicate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * One household's names and photo hashes as of the last detection pass. Lookups go through
+ * {@link MinHashLsh} for names and {@link HammingBkTree} for photos, so finding the
+ * duplicates of one item does not compare it with every other item. The household's likely
+ * duplicate pairs are found once per pass, after the index is complete.
+ */
+final class DuplicateIndex {
+    static final DuplicateIndex EMPTY = new DuplicateIndex();
+
+    private final Map<Long, Set<String>> shinglesByItem = new HashMap<>();
+
+    private final Map<Long, List<Long>> photoHashesByItem = new HashMap<>();
+
+    private final MinHashLsh names = new MinHashLsh();
+
+    private final HammingBkTree photos = new HammingBkTree();
+
+    private List<Pair> pairs = Collections.emptyList();
+
+    void addName(long itemId, Set<String> shingles) {
+        shinglesByItem.put(itemId, shingles);
+        names.add(itemId, shingles);
+    }
+
+    void addPhoto(long itemId, long hash) {
+        photoHashesByItem.computeIfAbsent(itemId, id -> new ArrayList<>(1)).add(hash);
+        photos.add(hash, itemId);
+    }
+
+    Set<String> shingles(long itemId) {
+        Set<String> shingles = shinglesByItem.get(itemId);
+        return shingles != null ? shingles : Collections.<String>emptySet();
+    }
+
+    List<Long> photoHashes(long itemId) {
+        List<Long> hashes = photoHashesByItem.get(itemId);
+        return hashes != null ? hashes : Collections.<Long>emptyList();
+    }
+
+    /**
+     * Items other than {@code itemId} whose name has at least {@code minSimilarity} Jaccard
+     * similarity to {@code shingles}, or that have a photo within {@code maxDistance} bits of
+     * one of {@code photoHashes}.
+     */
+    Map<Long, Match> match(long itemId, Set<String> shingles, List<Long> photoHashes,
+                           double minSimilarity, int maxDistance) {
+        Map<Long, Match> matches = new HashMap<>();
+        for (Long candidate : names.candidates(shingles)) {
+            if (candidate == itemId) {
+                continue;
+            }
+            double similarity = NameShingles.jaccard(shingles, shingles(candidate));
+            if (similarity >= minSimilarity) {
+                matches.computeIfAbsent(candidate, id -> new Match()).nameSimilarity = similarity;
+            }
+        }
+        for (long hash : photoHashes) {
+            photos.search(hash, maxDistance, (candidate, distance) -> {
+                if (candidate == itemId) {
+                    return;
+                }
+                Match match = matches.computeIfAbsent(candidate, id -> new Match());
+                if (match.photoDistance == null || distance < match.photoDistance) {
+                    match.photoDistance = distance;
+                }
+            });
+        }
+        // Photo matches also report how similar the names are, even below the threshold
+        for (Map.Entry<Long, Match> entry : matches.entrySet()) {
+            if (entry.getValue().nameSimilarity == null) {
+                entry.getValue().nameSimilarity = NameShingles.jaccard(shingles, shingles(entry.getKey()));
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Matches every item against the index and keeps each pair once, strongest first: photo
+     * matches by distance, then name matches by similarity.
+     */
+    void computePairs(double minSimilarity, int maxDistance) {
+        List<Pair> found = new ArrayList<>();
+        for (Long itemId : shinglesByItem.keySet()) {
+            Map<Long, Match> matches = match(itemId, shingles(itemId), photoHashes(itemId), minSimilarity, maxDistance);
+            for (Map.Entry<Long, Match> entry : matches.entrySet()) {
+                if (itemId < entry.getKey()) {
+                    found.add(new Pair(itemId, entry.getKey(), entry.getValue()));
+                }
+            }
+        }
+        found.sort(Comparator.comparing((Pair pair) -> pair.match.photoDistance, Comparator.nullsLast(Comparator.naturalOrder()))
+                .thenComparing(pair -> pair.match.nameSimilarity, Comparator.reverseOrder()));
+        pairs = Collections.unmodifiableList(found);
+    }
+
+    List<Pair> pairs() {
+        return pairs;
+    }
+
+    static final class Pair {
+        final long itemId;
+
+        final long otherItemId;
+
+        final Match match;
+
+        Pair(long itemId, long otherItemId, Match match) {
+            this.itemId = itemId;
+            this.otherItemId = otherItemId;
+            this.match = match;
+        }
+    }
+
+    static final class Match {
+        Double nameSimilarity;
+
+        Integer photoDistance;
+    }
+}
@@ -0,0 +1,27 @@
+package com.homeinventory.duplicate;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Two items of the household that are likely the same thing entered twice.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DuplicatePair {
+    private Long itemId;
+
+    private String itemName;
+
+    private Long otherItemId;
+
+    private String otherItemName;
+
+    /** Jaccard similarity of the normalized name shingles, 0..1. */
+    private Double nameSimilarity;
+
+    /** Bits differing between the closest pair of photo hashes, 0..64; null when no photo matched. */
+    private Integer photoDistance;
+}
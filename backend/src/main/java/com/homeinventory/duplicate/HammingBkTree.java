@@ -0,0 +1,93 @@
+package com.homeinventory.duplicate;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * BK-tree over 64-bit perceptual hashes under Hamming distance. Each node keeps its children
+ * by their distance to it; by the triangle inequality a search within radius {@code r} of a
+ * query at distance {@code d} from a node only has to visit children keyed {@code d-r..d+r},
+ * so lookups touch a small part of the tree instead of every hash.
+ *
+ * Not thread-safe for writes: built once per detection pass, then only read.
+ */
+final class HammingBkTree {
+    private Node root;
+
+    void add(long hash, long itemId) {
+        if (root == null) {
+            root = new Node(hash, itemId);
+            return;
+        }
+        Node node = root;
+        while (true) {
+            int distance = PerceptualHash.distance(hash, node.hash);
+            if (distance == 0) {
+                node.addItem(itemId);
+                return;
+            }
+            Node child = node.children[distance];
+            if (child == null) {
+                node.children[distance] = new Node(hash, itemId);
+                return;
+            }
+            node = child;
+        }
+    }
+
+    /**
+     * Calls {@code visitor} for every item that has a photo within {@code maxDistance} of {@code hash}.
+     */
+    void search(long hash, int maxDistance, Visitor visitor) {
+        if (root == null) {
+            return;
+        }
+        Deque<Node> pending = new ArrayDeque<>();
+        pending.push(root);
+        while (!pending.isEmpty()) {
+            Node node = pending.pop();
+            int distance = PerceptualHash.distance(hash, node.hash);
+            if (distance <= maxDistance) {
+                for (int i = 0; i < node.itemCount; i++) {
+                    visitor.visit(node.itemIds[i], distance);
+                }
+            }
+            int from = Math.max(1, distance - maxDistance);
+            int to = Math.min(Long.SIZE, distance + maxDistance);
+            for (int d = from; d <= to; d++) {
+                if (node.children[d] != null) {
+                    pending.push(node.children[d]);
+                }
+            }
+        }
+    }
+
+    interface Visitor {
+        void visit(long itemId, int distance);
+    }
+
+    private static final class Node {
+        final long hash;
+
+        /** Indexed by distance to this node, 1..64. */
+        final Node[] children = new Node[Long.SIZE + 1];
+
+        long[] itemIds = new long[1];
+
+        int itemCount;
+
+        Node(long hash, long itemId) {
+            this.hash = hash;
+            addItem(itemId);
+        }
+
+        void addItem(long itemId) {
+            if (itemCount == itemIds.length) {
+                long[] grown = new long[itemIds.length * 2];
+                System.arraycopy(itemIds, 0, grown, 0, itemCount);
+                itemIds = grown;
+            }
+            itemIds[itemCount++] = itemId;
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.homeinventory.duplicate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Locality-sensitive hashing of shingle sets. Each set gets a MinHash signature of
+ * {@code BANDS * ROWS} values; the signature is cut into bands and every band is a bucket
+ * key. Two sets share a bucket with probability {@code 1 - (1 - J^ROWS)^BANDS} for Jaccard
+ * similarity J (98% at J = 0.6, 35% at J = 0.3), so a lookup only compares against the
+ * few items in its buckets.
+ *
+ * Not thread-safe for writes: built once per detection pass, then only read.
+ */
+final class MinHashLsh {
+    private static final int BANDS = 16;
+
+    private static final int ROWS = 3;
+
+    private static final long[] SEEDS = new long[BANDS * ROWS];
+
+    static {
+        Random random = new Random(0x5eed5eedL);
+        for (int i = 0; i < SEEDS.length; i++) {
+            SEEDS[i] = random.nextLong() | 1;
+        }
+    }
+
+    private final Map<Long, List<Long>> buckets = new HashMap<>();
+
+    void add(long itemId, Set<String> shingles) {
+        if (shingles.isEmpty()) {
+            return;
+        }
+        for (long key : bandKeys(shingles)) {
+            buckets.computeIfAbsent(key, k -> new ArrayList<>(2)).add(itemId);
+        }
+    }
+
+    /** Items sharing at least one band with {@code shingles}; verify with the exact Jaccard. */
+    Set<Long> candidates(Set<String> shingles) {
+        Set<Long> candidates = new LinkedHashSet<>();
+        if (shingles.isEmpty()) {
+            return candidates;
+        }
+        for (long key : bandKeys(shingles)) {
+            List<Long> bucket = buckets.get(key);
+            if (bucket != null) {
+                candidates.addAll(bucket);
+            }
+        }
+        return candidates;
+    }
+
+    private static long[] bandKeys(Set<String> shingles) {
+        long[] signature = new long[SEEDS.length];
+        Arrays.fill(signature, Long.MAX_VALUE);
+        for (String shingle : shingles) {
+            long base = shingle.hashCode();
+            for (int i = 0; i < SEEDS.length; i++) {
+                long value = mix(base * SEEDS[i] + i);
+                if (value < signature[i]) {
+                    signature[i] = value;
+                }
+            }
+        }
+
+        long[] keys = new long[BANDS];
+        for (int band = 0; band < BANDS; band++) {
+            long key = band;
+            for (int row = 0; row < ROWS; row++) {
+                key = key * 31 + signature[band * ROWS + row];
+            }
+            keys[band] = mix(key);
+        }
+        return keys;
+    }
+
+    /** SplitMix64 finalizer. */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,65 @@
+package com.homeinventory.duplicate;
+
+import java.text.Normalizer;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Normalized character 3-grams of an item name. Character n-grams rather than words, because
+ * names are mostly Chinese and carry no spaces to split on; "AA电池（4节）" and "aa 电池 4节"
+ * normalize to the same string.
+ */
+final class NameShingles {
+    private static final int SIZE = 3;
+
+    private NameShingles() {
+    }
+
+    static Set<String> of(String name) {
+        String normalized = normalize(name);
+        if (normalized.isEmpty()) {
+            return Collections.emptySet();
+        }
+        if (normalized.length() <= SIZE) {
+            return Collections.singleton(normalized);
+        }
+        Set<String> shingles = new HashSet<>();
+        for (int i = 0; i + SIZE <= normalized.length(); i++) {
+            shingles.add(normalized.substring(i, i + SIZE));
+        }
+        return shingles;
+    }
+
+    /** Full-width forms folded by NFKC, lower-cased, and everything but letters and digits dropped. */
+    static String normalize(String name) {
+        if (name == null) {
+            return "";
+        }
+        String folded = Normalizer.normalize(name, Normalizer.Form.NFKC).toLowerCase(Locale.ROOT);
+        StringBuilder normalized = new StringBuilder(folded.length());
+        for (int i = 0; i < folded.length(); i++) {
+            char c = folded.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                normalized.append(c);
+            }
+        }
+        return normalized.toString();
+    }
+
+    static double jaccard(Set<String> a, Set<String> b) {
+        if (a.isEmpty() || b.isEmpty()) {
+            return 0;
+        }
+        Set<String> smaller = a.size() <= b.size() ? a : b;
+        Set<String> larger = smaller == a ? b : a;
+        int common = 0;
+        for (String shingle : smaller) {
+            if (larger.contains(shingle)) {
+                common++;
+            }
+        }
+        return (double) common / (a.size() + b.size() - common);
+    }
+}
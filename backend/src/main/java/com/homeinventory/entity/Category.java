@@ -1,5 +1,8 @@
 package com.homeinventory.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.homeinventory.tenant.TenantAware;
+import com.homeinventory.tenant.TenantEntityListener;
 import javax.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -7,16 +10,21 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "categories")
+@Table(name = "categories", uniqueConstraints = @UniqueConstraint(name = "uk_categories_tenant_name", columnNames = {"tenant_id", "name"}))
+@EntityListeners(TenantEntityListener.class)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
-public class Category {
+public class Category implements TenantAware {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @Column(nullable = false, unique = true)
+    @JsonIgnore
+    @Column(name = "tenant_id", nullable = false, updatable = false, length = 64)
+    private String tenantId;
+
+    @Column(nullable = false)
     private String name;
 
     private String icon;
@@ -0,0 +1,28 @@
+package com.homeinventory.entity;
+
+import javax.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+/**
+ * A household (tenant) and the hash of the access key its clients present. The id is the
+ * {@code tenant_id} stamped on the household's rows; the key itself is never stored.
+ */
+@Entity
+@Table(name = "households")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Household {
+    @Id
+    @Column(length = 64)
+    private String id;
+
+    @Column(name = "key_hash", nullable = false, unique = true, length = 64)
+    private String keyHash;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt = LocalDateTime.now();
+}
@@ -1,5 +1,8 @@
 package com.homeinventory.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.homeinventory.tenant.TenantAware;
+import com.homeinventory.tenant.TenantEntityListener;
 import javax.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -7,15 +10,23 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "items")
+@Table(name = "items", indexes = {
+        @Index(name = "idx_items_tenant_location", columnList = "tenant_id, storage_location_id"),
+        @Index(name = "idx_items_tenant_name", columnList = "tenant_id, name")
+})
+@EntityListeners(TenantEntityListener.class)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
-public class Item {
+public class Item implements TenantAware {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    @JsonIgnore
+    @Column(name = "tenant_id", nullable = false, updatable = false, length = 64)
+    private String tenantId;
+
     @ManyToOne
     @JoinColumn(name = "storage_location_id", nullable = false)
     private StorageLocation storageLocation;
@@ -37,4 +48,9 @@ public class Item {
 
     @Column(name = "updated_at")
     private LocalDateTime updatedAt = LocalDateTime.now();
+
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
 }
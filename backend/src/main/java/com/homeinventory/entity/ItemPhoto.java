@@ -1,5 +1,8 @@
 package com.homeinventory.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.homeinventory.tenant.TenantAware;
+import com.homeinventory.tenant.TenantEntityListener;
 import javax.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -7,15 +10,20 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "item_photos")
+@Table(name = "item_photos", indexes = @Index(name = "idx_item_photos_tenant_item", columnList = "tenant_id, item_id"))
+@EntityListeners(TenantEntityListener.class)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
-public class ItemPhoto {
+public class ItemPhoto implements TenantAware {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    @JsonIgnore
+    @Column(name = "tenant_id", nullable = false, updatable = false, length = 64)
+    private String tenantId;
+
     @ManyToOne
     @JoinColumn(name = "item_id", nullable = false)
     private Item item;
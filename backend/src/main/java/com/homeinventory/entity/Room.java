@@ -1,5 +1,8 @@
 package com.homeinventory.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.homeinventory.tenant.TenantAware;
+import com.homeinventory.tenant.TenantEntityListener;
 import javax.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -7,15 +10,20 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "rooms")
+@Table(name = "rooms", indexes = @Index(name = "idx_rooms_tenant_address", columnList = "tenant_id, address_id"))
+@EntityListeners(TenantEntityListener.class)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
-public class Room {
+public class Room implements TenantAware {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
+    @JsonIgnore
+    @Column(name = "tenant_id", nullable = false, updatable = false, length = 64)
+    private String tenantId;
+
     @ManyToOne
     @JoinColumn(name = "address_id", nullable = false)
     private Address address;
@@ -31,4 +39,9 @@ public class Room {
 
     @Column(name = "updated_at")
     private LocalDateTime updatedAt = LocalDateTime.now();
+
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
 }
@@ -0,0 +1,402 @@
+package com.homeinventory.maintenance;
+
+import com.homeinventory.repository.ItemPhotoRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.metadata.IIOMetadata;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Background housekeeping for the upload directory.
+ *
+ * Each pass streams the directory in batches, looks up which files are still referenced by
+ * an {@code ItemPhoto} (one IN query per batch), and then:
+ * <ul>
+ *   <li>archives or deletes unreferenced files older than the grace period, which covers
+ *       photos of deleted items and files left behind by failed uploads; archived files are
+ *       deleted after {@code archive-retention-days};</li>
+ *   <li>re-encodes referenced JPEG/PNG originals older than {@code recompress-after-days},
+ *       keeping the result only if it is smaller;</li>
+ *   <li>recomputes per-household storage usage for {@link PhotoStorageQuota}.</li>
+ * </ul>
+ * Disk I/O is throttled to {@code max-bytes-per-second}, so a first pass over a large
+ * directory can take many minutes. It therefore runs on its own minimum-priority thread: the
+ * schedule only hands the pass over, keeping Spring's single scheduler thread free for the
+ * other background jobs, and skips a trigger while the previous pass is still running.
+ */
+@Service
+public class PhotoMaintenanceService {
+    private static final Logger log = LoggerFactory.getLogger(PhotoMaintenanceService.class);
+
+    private static final int BATCH_SIZE = 500;
+
+    /** Names of the files already tried, one per line; a dot file, so the sweep skips it. */
+    private static final String RECOMPRESSED_LIST = ".recompressed";
+
+    @Autowired
+    private ItemPhotoRepository itemPhotoRepository;
+
+    @Autowired
+    private PhotoStorageQuota photoStorageQuota;
+
+    @Value("${file.upload-dir}")
+    private String uploadDir;
+
+    @Value("${photo.maintenance.orphan-grace-minutes:60}")
+    private long orphanGraceMinutes;
+
+    @Value("${photo.maintenance.orphan-action:archive}")
+    private String orphanAction;
+
+    @Value("${photo.maintenance.archive-dir:uploads-archive}")
+    private String archiveDir;
+
+    @Value("${photo.maintenance.archive-retention-days:30}")
+    private long archiveRetentionDays;
+
+    @Value("${photo.maintenance.recompress-after-days:30}")
+    private long recompressAfterDays;
+
+    @Value("${photo.maintenance.jpeg-quality:0.8}")
+    private float jpegQuality;
+
+    @Value("${photo.maintenance.max-bytes-per-second:4194304}")
+    private long maxBytesPerSecond;
+
+    /**
+     * Files already tried once, whether or not they shrank. Kept in {@link #RECOMPRESSED_LIST}
+     * so that a restart does not re-encode the same JPEGs again and compound the loss.
+     */
+    private final Set<String> recompressionChecked = ConcurrentHashMap.newKeySet();
+
+    private boolean recompressionListLoaded;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "photo-maintenance");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        return thread;
+    });
+
+    private final AtomicBoolean passRunning = new AtomicBoolean();
+
+    @Scheduled(initialDelayString = "${photo.maintenance.initial-delay-ms:60000}",
+            fixedDelayString = "${photo.maintenance.interval-ms:3600000}")
+    public void scheduleMaintenance() {
+        if (passRunning.compareAndSet(false, true)) {
+            executor.execute(() -> {
+                try {
+                    runMaintenance();
+                } finally {
+                    passRunning.set(false);
+                }
+            });
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        // Interrupts the throttling sleep; the pass then ends without saving partial totals
+        executor.shutdownNow();
+    }
+
+    private void runMaintenance() {
+        Path uploadRoot = Paths.get(uploadDir);
+        if (!Files.isDirectory(uploadRoot)) {
+            return;
+        }
+
+        try {
+            if (!recompressionListLoaded) {
+                loadRecompressionList(uploadRoot);
+                recompressionListLoaded = true;
+            }
+            Pass pass = new Pass();
+            List<Path> batch = new ArrayList<>(BATCH_SIZE);
+            try (DirectoryStream<Path> stream = Files.newDirectoryStream(uploadRoot, PhotoMaintenanceService::isPhotoFile)) {
+                for (Path file : stream) {
+                    batch.add(file);
+                    if (batch.size() == BATCH_SIZE) {
+                        processBatch(batch, pass);
+                        batch.clear();
+                    }
+                }
+            }
+            processBatch(batch, pass);
+
+            pruneArchive(pass);
+            photoStorageQuota.replaceAll(pass.usageByTenant);
+            recompressionChecked.retainAll(pass.seen);
+            saveRecompressionList(uploadRoot);
+            log.info("Photo maintenance: {} files, {} orphans {}, {} recompressed ({} bytes saved), {} archived files expired",
+                    pass.seen.size(), pass.orphans, "delete".equals(orphanAction) ? "deleted" : "archived",
+                    pass.recompressed, pass.bytesSaved, pass.archiveExpired);
+        } catch (IOException | RuntimeException e) {
+            // Logged here: the executor would only print it to stderr
+            log.error("Photo maintenance failed", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void processBatch(List<Path> batch, Pass pass) throws IOException, InterruptedException {
+        if (batch.isEmpty()) {
+            return;
+        }
+        List<String> names = new ArrayList<>(batch.size());
+        for (Path file : batch) {
+            names.add(file.getFileName().toString());
+        }
+        Map<String, String> tenantByPath = new HashMap<>();
+        for (Object[] row : itemPhotoRepository.findTenantsByPhotoPaths(names)) {
+            tenantByPath.put((String) row[0], (String) row[1]);
+        }
+
+        long now = System.currentTimeMillis();
+        for (Path file : batch) {
+            String name = file.getFileName().toString();
+            BasicFileAttributes attributes;
+            try {
+                attributes = Files.readAttributes(file, BasicFileAttributes.class);
+            } catch (IOException e) {
+                // Deleted concurrently, e.g. by ItemPhotoController.deletePhoto
+                continue;
+            }
+            long ageMillis = now - attributes.lastModifiedTime().toMillis();
+            pass.seen.add(name);
+
+            String tenantId = tenantByPath.get(name);
+            if (tenantId == null) {
+                if (ageMillis >= TimeUnit.MINUTES.toMillis(orphanGraceMinutes)) {
+                    removeOrphan(file, attributes.size());
+                    pass.orphans++;
+                }
+                continue;
+            }
+
+            long size = attributes.size();
+            if (ageMillis >= TimeUnit.DAYS.toMillis(recompressAfterDays) && recompressionChecked.add(name)) {
+                // Recorded before the attempt: a crash mid-way must not lead to a second lossy pass
+                appendToRecompressionList(file.resolveSibling(RECOMPRESSED_LIST), name);
+                long newSize;
+                try {
+                    newSize = recompress(file, size);
+                } catch (IOException e) {
+                    log.warn("Could not recompress {}: {}", name, e.getMessage());
+                    newSize = size;
+                }
+                if (newSize < size) {
+                    pass.recompressed++;
+                    pass.bytesSaved += size - newSize;
+                    size = newSize;
+                }
+            }
+            Long usage = pass.usageByTenant.get(tenantId);
+            pass.usageByTenant.put(tenantId, (usage != null ? usage : 0L) + size);
+        }
+    }
+
+    private void removeOrphan(Path file, long size) throws IOException, InterruptedException {
+        if ("delete".equals(orphanAction)) {
+            Files.deleteIfExists(file);
+            return;
+        }
+        Path archiveRoot = Paths.get(archiveDir);
+        Files.createDirectories(archiveRoot);
+        Path target = archiveRoot.resolve(file.getFileName());
+        try {
+            Files.move(file, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            // Archive on another file system: falls back to copy + delete
+            Files.move(file, target, StandardCopyOption.REPLACE_EXISTING);
+            throttle(size * 2);
+        }
+        // The retention period counts from archiving, not from the original upload
+        Files.setLastModifiedTime(target, FileTime.fromMillis(System.currentTimeMillis()));
+    }
+
+    /**
+     * Deletes archived orphans older than {@code archive-retention-days}; 0 keeps them forever.
+     */
+    private void pruneArchive(Pass pass) throws IOException {
+        Path archiveRoot = Paths.get(archiveDir);
+        if (archiveRetentionDays <= 0 || !Files.isDirectory(archiveRoot)) {
+            return;
+        }
+        long cutoff = System.currentTimeMillis() - TimeUnit.DAYS.toMillis(archiveRetentionDays);
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(archiveRoot, PhotoMaintenanceService::isPhotoFile)) {
+            for (Path file : stream) {
+                try {
+                    if (Files.getLastModifiedTime(file).toMillis() < cutoff) {
+                        Files.delete(file);
+                        pass.archiveExpired++;
+                    }
+                } catch (IOException e) {
+                    log.warn("Could not expire archived photo {}: {}", file.getFileName(), e.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the file size after the attempt; the original is kept unless re-encoding shrank it
+     */
+    private long recompress(Path file, long size) throws IOException, InterruptedException {
+        String format = formatOf(file.getFileName().toString());
+        if (format == null) {
+            return size;
+        }
+        BufferedImage image;
+        IIOMetadata metadata;
+        try (ImageInputStream input = ImageIO.createImageInputStream(file.toFile())) {
+            Iterator<ImageReader> readers = input != null ? ImageIO.getImageReaders(input) : null;
+            if (readers == null || !readers.hasNext()) {
+                return size;
+            }
+            ImageReader reader = readers.next();
+            try {
+                if (!format.equalsIgnoreCase(reader.getFormatName())) {
+                    // Extension does not match the content; its metadata would not fit the writer
+                    return size;
+                }
+                reader.setInput(input, true, false);
+                image = reader.read(0);
+                // Carries EXIF (orientation, capture date) and PNG text chunks over to the re-encoded file
+                metadata = reader.getImageMetadata(0);
+            } finally {
+                reader.dispose();
+            }
+        } finally {
+            throttle(size);
+        }
+        if (image == null || ("jpeg".equals(format) && image.getColorModel().hasAlpha())) {
+            return size;
+        }
+
+        Path temp = file.resolveSibling("." + file.getFileName() + ".tmp");
+        try {
+            Iterator<ImageWriter> writers = ImageIO.getImageWritersByFormatName(format);
+            if (!writers.hasNext()) {
+                return size;
+            }
+            ImageWriter writer = writers.next();
+            try (ImageOutputStream output = ImageIO.createImageOutputStream(temp.toFile())) {
+                writer.setOutput(output);
+                ImageWriteParam param = writer.getDefaultWriteParam();
+                if ("jpeg".equals(format)) {
+                    param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                    param.setCompressionQuality(jpegQuality);
+                }
+                writer.write(null, new IIOImage(image, null, metadata), param);
+            } finally {
+                writer.dispose();
+            }
+
+            long newSize = Files.size(temp);
+            throttle(newSize);
+            if (newSize < size) {
+                Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                return newSize;
+            }
+            return size;
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private void loadRecompressionList(Path uploadRoot) throws IOException {
+        Path list = uploadRoot.resolve(RECOMPRESSED_LIST);
+        if (Files.exists(list)) {
+            recompressionChecked.addAll(Files.readAllLines(list, StandardCharsets.UTF_8));
+        }
+    }
+
+    private void appendToRecompressionList(Path list, String name) {
+        try {
+            Files.write(list, Collections.singletonList(name), StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            log.warn("Could not record {} in {}: {}", name, list, e.getMessage());
+        }
+    }
+
+    /** Rewrites the list without the files that no longer exist. */
+    private void saveRecompressionList(Path uploadRoot) throws IOException {
+        Path list = uploadRoot.resolve(RECOMPRESSED_LIST);
+        Path temp = uploadRoot.resolve(RECOMPRESSED_LIST + ".tmp");
+        Files.write(temp, new ArrayList<>(recompressionChecked), StandardCharsets.UTF_8);
+        Files.move(temp, list, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private void throttle(long bytes) throws InterruptedException {
+        if (maxBytesPerSecond > 0 && bytes > 0) {
+            Thread.sleep(bytes * 1000 / maxBytesPerSecond);
+        }
+    }
+
+    private static boolean isPhotoFile(Path path) {
+        return !path.getFileName().toString().startsWith(".") && Files.isRegularFile(path);
+    }
+
+    private static String formatOf(String filename) {
+        String lower = filename.toLowerCase(Locale.ROOT);
+        if (lower.endsWith(".jpg") || lower.endsWith(".jpeg")) {
+            return "jpeg";
+        }
+        if (lower.endsWith(".png")) {
+            return "png";
+        }
+        return null;
+    }
+
+    private static class Pass {
+        final Set<String> seen = new HashSet<>();
+
+        final Map<String, Long> usageByTenant = new HashMap<>();
+
+        int orphans;
+
+        int recompressed;
+
+        int archiveExpired;
+
+        long bytesSaved;
+    }
+}
@@ -0,0 +1,92 @@
+package com.homeinventory.maintenance;
+
+import com.homeinventory.repository.ItemPhotoRepository;
+import com.homeinventory.tenant.TenantContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tracks how many bytes of photos each household stores. A household's usage is summed from
+ * its photo records the first time it is needed, uploads reserve their bytes up front, and
+ * {@link PhotoMaintenanceService} replaces the counters with exact totals on every pass.
+ */
+@Component
+public class PhotoStorageQuota {
+    @Autowired
+    private ItemPhotoRepository itemPhotoRepository;
+
+    @Value("${file.upload-dir}")
+    private String uploadDir;
+
+    @Value("${photo.storage.quota-bytes:0}")
+    private long quotaBytes;
+
+    private final Map<String, AtomicLong> usageByTenant = new ConcurrentHashMap<>();
+
+    /**
+     * Atomically adds {@code bytes} to the current household's usage if that stays within the
+     * quota; always succeeds when no quota is configured. The caller must {@link #release} the
+     * bytes again if the photo is not stored after all.
+     */
+    public boolean tryReserve(long bytes) {
+        AtomicLong usage = usage(TenantContext.getTenantId());
+        while (true) {
+            long current = usage.get();
+            if (quotaBytes > 0 && current + bytes > quotaBytes) {
+                return false;
+            }
+            if (usage.compareAndSet(current, current + bytes)) {
+                return true;
+            }
+        }
+    }
+
+    public long getUsage() {
+        return usage(TenantContext.getTenantId()).get();
+    }
+
+    public void release(long bytes) {
+        usage(TenantContext.getTenantId()).addAndGet(-bytes);
+    }
+
+    void replaceAll(Map<String, Long> totals) {
+        for (Map.Entry<String, Long> entry : totals.entrySet()) {
+            usageByTenant.computeIfAbsent(entry.getKey(), tenant -> new AtomicLong()).set(entry.getValue());
+        }
+        usageByTenant.keySet().retainAll(totals.keySet());
+    }
+
+    private AtomicLong usage(String tenantId) {
+        AtomicLong usage = usageByTenant.get(tenantId);
+        if (usage != null) {
+            return usage;
+        }
+        // Loaded outside the map so slow disks do not block other households; if two requests
+        // race, one total wins and the next maintenance pass corrects any difference
+        AtomicLong loaded = new AtomicLong(quotaBytes > 0 ? storedBytes(tenantId) : 0);
+        AtomicLong existing = usageByTenant.putIfAbsent(tenantId, loaded);
+        return existing != null ? existing : loaded;
+    }
+
+    private long storedBytes(String tenantId) {
+        long total = 0;
+        for (String photoPath : itemPhotoRepository.findPhotoPathsByTenantId(tenantId)) {
+            Path file = Paths.get(uploadDir, photoPath);
+            try {
+                total += Files.size(file);
+            } catch (IOException e) {
+                // Missing file: takes no space
+            }
+        }
+        return total;
+    }
+}
@@ -0,0 +1,166 @@
+package com.homeinventory.query;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Which entity types, fields and relations {@link QueryService} exposes. Field names map to
+ * JPQL paths; foreign keys are exposed as {@code <relation>Id} fields read straight from
+ * the owning row, so no join is needed to resolve a relation.
+ */
+final class EntitySchema {
+    private static final Map<String, Type> TYPES = new HashMap<>();
+
+    static {
+        type("addresses", "Address")
+                .field("id", "id", Long.class)
+                .field("name", "name", String.class)
+                .field("address", "address", String.class)
+                .field("createdAt", "createdAt", LocalDateTime.class)
+                .field("updatedAt", "updatedAt", LocalDateTime.class)
+                .toMany("rooms", "rooms", "addressId");
+
+        type("rooms", "Room")
+                .field("id", "id", Long.class)
+                .field("addressId", "address.id", Long.class)
+                .field("name", "name", String.class)
+                .field("floorPlanData", "floorPlanData", String.class)
+                .field("createdAt", "createdAt", LocalDateTime.class)
+                .field("updatedAt", "updatedAt", LocalDateTime.class)
+                .toOne("address", "addresses", "addressId")
+                .toMany("storageLocations", "storageLocations", "roomId");
+
+        type("storageLocations", "StorageLocation")
+                .field("id", "id", Long.class)
+                .field("roomId", "room.id", Long.class)
+                .field("name", "name", String.class)
+                .field("type", "type", String.class)
+                .field("positionX", "positionX", Double.class)
+                .field("positionY", "positionY", Double.class)
+                .field("createdAt", "createdAt", LocalDateTime.class)
+                .field("updatedAt", "updatedAt", LocalDateTime.class)
+                .toOne("room", "rooms", "roomId")
+                .toMany("items", "items", "storageLocationId");
+
+        type("items", "Item")
+                .field("id", "id", Long.class)
+                .field("storageLocationId", "storageLocation.id", Long.class)
+                .field("categoryId", "category.id", Long.class)
+                .field("name", "name", String.class)
+                .field("description", "description", String.class)
+                .field("quantity", "quantity", Integer.class)
+                .field("createdAt", "createdAt", LocalDateTime.class)
+                .field("updatedAt", "updatedAt", LocalDateTime.class)
+                .toOne("storageLocation", "storageLocations", "storageLocationId")
+                .toOne("category", "categories", "categoryId")
+                .toMany("photos", "photos", "itemId");
+
+        type("photos", "ItemPhoto")
+                .field("id", "id", Long.class)
+                .field("itemId", "item.id", Long.class)
+                .field("photoPath", "photoPath", String.class)
+                .field("createdAt", "createdAt", LocalDateTime.class)
+                .toOne("item", "items", "itemId");
+
+        type("categories", "Category")
+                .field("id", "id", Long.class)
+                .field("name", "name", String.class)
+                .field("icon", "icon", String.class)
+                .field("createdAt", "createdAt", LocalDateTime.class)
+                .toMany("items", "items", "categoryId");
+    }
+
+    private EntitySchema() {
+    }
+
+    static Type get(String name) {
+        Type type = TYPES.get(name);
+        if (type == null) {
+            throw new QueryException("Unknown type '" + name + "', expected one of " + TYPES.keySet());
+        }
+        return type;
+    }
+
+    private static Type type(String name, String entity) {
+        Type type = new Type(name, entity);
+        TYPES.put(name, type);
+        return type;
+    }
+
+    static final class Type {
+        final String name;
+
+        final String entity;
+
+        final Map<String, Field> fields = new LinkedHashMap<>();
+
+        final Map<String, Relation> relations = new LinkedHashMap<>();
+
+        private Type(String name, String entity) {
+            this.name = name;
+            this.entity = entity;
+        }
+
+        Field field(String name) {
+            Field field = fields.get(name);
+            if (field == null) {
+                throw new QueryException("Unknown field '" + name + "' on " + this.name);
+            }
+            return field;
+        }
+
+        Relation relation(String name) {
+            Relation relation = relations.get(name);
+            if (relation == null) {
+                throw new QueryException("Unknown relation '" + name + "' on " + this.name);
+            }
+            return relation;
+        }
+
+        private Type field(String name, String path, Class<?> javaType) {
+            fields.put(name, new Field(name, path, javaType));
+            return this;
+        }
+
+        private Type toOne(String name, String target, String foreignKey) {
+            relations.put(name, new Relation(target, false, foreignKey));
+            return this;
+        }
+
+        private Type toMany(String name, String target, String backReference) {
+            relations.put(name, new Relation(target, true, backReference));
+            return this;
+        }
+    }
+
+    static final class Field {
+        final String name;
+
+        final String path;
+
+        final Class<?> javaType;
+
+        private Field(String name, String path, Class<?> javaType) {
+            this.name = name;
+            this.path = path;
+            this.javaType = javaType;
+        }
+    }
+
+    static final class Relation {
+        final String target;
+
+        final boolean toMany;
+
+        /** To-one: foreign key field on this type. To-many: back-reference field on the target. */
+        final String keyField;
+
+        private Relation(String target, boolean toMany, String keyField) {
+            this.target = target;
+            this.toMany = toMany;
+            this.keyField = keyField;
+        }
+    }
+}
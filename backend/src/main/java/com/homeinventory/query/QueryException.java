@@ -0,0 +1,10 @@
+package com.homeinventory.query;
+
+/**
+ * A query that is malformed or over its cost limits; reported to the client as 400.
+ */
+public class QueryException extends RuntimeException {
+    public QueryException(String message) {
+        super(message);
+    }
+}
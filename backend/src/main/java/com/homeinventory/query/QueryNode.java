@@ -0,0 +1,36 @@
+package com.homeinventory.query;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One level of a field-selection query, as posted to {@code /api/query}:
+ * <pre>
+ * { "items": { "fields": ["id", "name"],
+ *              "where": { "name": { "like": "tape" } },
+ *              "include": { "storageLocation": { "fields": ["name"] },
+ *                           "photos": { "count": true } } } }
+ * </pre>
+ * At the root, {@code type} defaults to the alias the node is posted under.
+ */
+@Data
+@NoArgsConstructor
+public class QueryNode {
+    private String type;
+
+    /** Scalar fields to return; all of them when omitted. */
+    private List<String> fields;
+
+    /** Field to value (equality), or to {"like": text} / {"in": [values]}. Root level only. */
+    private Map<String, Object> where;
+
+    private Map<String, QueryNode> include;
+
+    /** Root level only. */
+    private Integer limit;
+
+    /** On a to-many relation: return {@code <relation>Count} instead of the rows. */
+    private boolean count;
+}
@@ -0,0 +1,388 @@
+package com.homeinventory.query;
+
+import com.homeinventory.tenant.TenantContext;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.Query;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Resolves field-selection queries against the current household's data.
+ *
+ * Every node of the query tree is loaded with a single scalar JPQL query (split only when
+ * more than {@link #IN_CHUNK_SIZE} keys are involved): related rows are fetched DataLoader
+ * style by collecting the keys of the whole level and issuing one IN query, so resolving
+ * items -> storage locations -> rooms -> addresses costs four queries however many items
+ * match. Because only the selected columns and foreign-key ids are read, no entity graphs
+ * are materialized.
+ *
+ * Cost limits: each node costs 1 (one query), a request may not exceed {@code query.max-cost}
+ * or nest deeper than {@code query.max-depth}, and the rows loaded across all levels may not
+ * exceed {@code query.max-rows}.
+ */
+@Service
+public class QueryService {
+    private static final int IN_CHUNK_SIZE = 1000;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${query.max-cost:20}")
+    private int maxCost;
+
+    @Value("${query.max-depth:4}")
+    private int maxDepth;
+
+    @Value("${query.default-limit:500}")
+    private int defaultLimit;
+
+    @Value("${query.max-limit:1000}")
+    private int maxLimit;
+
+    @Value("${query.max-rows:10000}")
+    private int maxRows;
+
+    @Transactional(readOnly = true)
+    public Map<String, Object> execute(Map<String, QueryNode> request) {
+        if (request == null || request.isEmpty()) {
+            throw new QueryException("Query is empty");
+        }
+        int cost = 0;
+        for (Map.Entry<String, QueryNode> entry : request.entrySet()) {
+            cost += validate(rootType(entry.getKey(), entry.getValue()), entry.getValue(), 1, true);
+        }
+        if (cost > maxCost) {
+            throw new QueryException("Query cost " + cost + " exceeds the limit of " + maxCost);
+        }
+
+        int[] rowBudget = {maxRows};
+        Map<String, Object> result = new LinkedHashMap<>();
+        for (Map.Entry<String, QueryNode> entry : request.entrySet()) {
+            QueryNode node = entry.getValue();
+            result.put(entry.getKey(), load(rootType(entry.getKey(), node), node, null, null, rowBudget));
+        }
+        return result;
+    }
+
+    private static EntitySchema.Type rootType(String alias, QueryNode node) {
+        if (node == null) {
+            throw new QueryException("Missing query for '" + alias + "'");
+        }
+        return EntitySchema.get(node.getType() != null ? node.getType() : alias);
+    }
+
+    private int validate(EntitySchema.Type type, QueryNode node, int depth, boolean root) {
+        if (depth > maxDepth) {
+            throw new QueryException("Query nests deeper than " + maxDepth + " levels");
+        }
+        if (!root && (node.getWhere() != null || node.getLimit() != null)) {
+            throw new QueryException("'where' and 'limit' are only supported at the root");
+        }
+        if (node.getLimit() != null && (node.getLimit() < 1 || node.getLimit() > maxLimit)) {
+            throw new QueryException("'limit' must be between 1 and " + maxLimit);
+        }
+        for (String field : requestedFields(type, node)) {
+            type.field(field);
+        }
+        if (node.getWhere() != null) {
+            for (String field : node.getWhere().keySet()) {
+                type.field(field);
+            }
+        }
+
+        int cost = 1;
+        if (node.getInclude() != null) {
+            for (Map.Entry<String, QueryNode> entry : node.getInclude().entrySet()) {
+                EntitySchema.Relation relation = type.relation(entry.getKey());
+                QueryNode child = entry.getValue() != null ? entry.getValue() : new QueryNode();
+                entry.setValue(child);
+                if (child.isCount()) {
+                    if (!relation.toMany) {
+                        throw new QueryException("'count' is only supported on to-many relations");
+                    }
+                    cost++;
+                } else {
+                    cost += validate(EntitySchema.get(relation.target), child, depth + 1, false);
+                }
+            }
+        }
+        return cost;
+    }
+
+    /**
+     * Loads the rows of one node and, recursively, of its includes.
+     *
+     * @param keyField null at the root; otherwise the field matched against {@code keys}
+     *                 (the id for to-one relations, the back-reference for to-many ones),
+     *                 which stays in the returned rows so the caller can attach them
+     */
+    private List<Map<String, Object>> load(EntitySchema.Type type, QueryNode node, String keyField,
+                                           Collection<?> keys, int[] rowBudget) {
+        List<String> requested = requestedFields(type, node);
+        Set<String> selected = new LinkedHashSet<>(requested);
+        selected.add("id");
+        if (keyField != null) {
+            selected.add(keyField);
+        }
+        if (node.getInclude() != null) {
+            for (String relationName : node.getInclude().keySet()) {
+                EntitySchema.Relation relation = type.relation(relationName);
+                if (!relation.toMany) {
+                    selected.add(relation.keyField);
+                }
+            }
+        }
+
+        List<Map<String, Object>> rows = keyField == null
+                ? selectRoot(type, node, selected, rowBudget)
+                : selectByKeys(type, selected, keyField, keys, rowBudget);
+
+        Set<String> visible = new LinkedHashSet<>(requested);
+        if (keyField != null) {
+            visible.add(keyField);
+        }
+        if (node.getInclude() != null) {
+            for (Map.Entry<String, QueryNode> entry : node.getInclude().entrySet()) {
+                resolveRelation(type, entry.getKey(), entry.getValue(), rows, rowBudget);
+                visible.add(entry.getValue().isCount() ? entry.getKey() + "Count" : entry.getKey());
+            }
+        }
+
+        // Drop the ids and foreign keys that were only selected to stitch levels together
+        for (Map<String, Object> row : rows) {
+            row.keySet().retainAll(visible);
+        }
+        return rows;
+    }
+
+    private void resolveRelation(EntitySchema.Type type, String relationName, QueryNode child,
+                                 List<Map<String, Object>> rows, int[] rowBudget) {
+        EntitySchema.Relation relation = type.relation(relationName);
+        EntitySchema.Type target = EntitySchema.get(relation.target);
+
+        if (!relation.toMany) {
+            Set<Object> foreignKeys = distinctValues(rows, relation.keyField);
+            Map<Object, Map<String, Object>> byId = new HashMap<>();
+            boolean keepId = requestedFields(target, child).contains("id");
+            for (Map<String, Object> related : load(target, child, "id", foreignKeys, rowBudget)) {
+                byId.put(keepId ? related.get("id") : related.remove("id"), related);
+            }
+            for (Map<String, Object> row : rows) {
+                row.put(relationName, byId.get(row.get(relation.keyField)));
+            }
+            return;
+        }
+
+        Set<Object> parentIds = distinctValues(rows, "id");
+        if (child.isCount()) {
+            Map<Object, Object> counts = countByKeys(target, relation.keyField, parentIds);
+            for (Map<String, Object> row : rows) {
+                Object count = counts.get(row.get("id"));
+                row.put(relationName + "Count", count != null ? count : 0L);
+            }
+            return;
+        }
+
+        boolean keepKey = requestedFields(target, child).contains(relation.keyField);
+        Map<Object, List<Map<String, Object>>> byParent = new HashMap<>();
+        for (Map<String, Object> related : load(target, child, relation.keyField, parentIds, rowBudget)) {
+            Object parentId = keepKey ? related.get(relation.keyField) : related.remove(relation.keyField);
+            byParent.computeIfAbsent(parentId, key -> new ArrayList<>()).add(related);
+        }
+        for (Map<String, Object> row : rows) {
+            List<Map<String, Object>> related = byParent.get(row.get("id"));
+            row.put(relationName, related != null ? related : Collections.emptyList());
+        }
+    }
+
+    private List<Map<String, Object>> selectRoot(EntitySchema.Type type, QueryNode node, Set<String> selected,
+                                                 int[] rowBudget) {
+        StringBuilder jpql = selectClause(type, selected);
+        Map<String, Object> params = new HashMap<>();
+        params.put("tenantId", TenantContext.getTenantId());
+        if (node.getWhere() != null) {
+            for (Map.Entry<String, Object> condition : node.getWhere().entrySet()) {
+                appendCondition(jpql, params, type.field(condition.getKey()), condition.getValue());
+            }
+        }
+        jpql.append(" ORDER BY e.id");
+
+        Query query = entityManager.createQuery(jpql.toString());
+        params.forEach(query::setParameter);
+        int limit = node.getLimit() != null ? node.getLimit() : defaultLimit;
+        query.setMaxResults(Math.min(limit, rowBudget[0] + 1));
+        List<?> results = query.getResultList();
+        spend(rowBudget, results.size());
+        return toRows(results, selected);
+    }
+
+    private List<Map<String, Object>> selectByKeys(EntitySchema.Type type, Set<String> selected, String keyField,
+                                                   Collection<?> keys, int[] rowBudget) {
+        List<Map<String, Object>> rows = new ArrayList<>();
+        if (keys.isEmpty()) {
+            return rows;
+        }
+        String jpql = selectClause(type, selected)
+                .append(" AND e.").append(type.field(keyField).path).append(" IN :keys ORDER BY e.id")
+                .toString();
+        for (List<Object> chunk : chunks(keys)) {
+            Query query = entityManager.createQuery(jpql);
+            query.setParameter("tenantId", TenantContext.getTenantId());
+            query.setParameter("keys", chunk);
+            // Never read more than one row past the budget, so an oversized include fails fast
+            query.setMaxResults(rowBudget[0] + 1);
+            List<?> results = query.getResultList();
+            spend(rowBudget, results.size());
+            rows.addAll(toRows(results, selected));
+        }
+        return rows;
+    }
+
+    private void spend(int[] rowBudget, int rows) {
+        rowBudget[0] -= rows;
+        if (rowBudget[0] < 0) {
+            throw new QueryException("Query would load more than " + maxRows + " rows");
+        }
+    }
+
+    private Map<Object, Object> countByKeys(EntitySchema.Type type, String keyField, Collection<?> keys) {
+        Map<Object, Object> counts = new HashMap<>();
+        if (keys.isEmpty()) {
+            return counts;
+        }
+        String path = "e." + type.field(keyField).path;
+        String jpql = "SELECT " + path + ", COUNT(e) FROM " + type.entity + " e WHERE e.tenantId = :tenantId AND "
+                + path + " IN :keys GROUP BY " + path;
+        for (List<Object> chunk : chunks(keys)) {
+            Query query = entityManager.createQuery(jpql);
+            query.setParameter("tenantId", TenantContext.getTenantId());
+            query.setParameter("keys", chunk);
+            for (Object result : query.getResultList()) {
+                Object[] pair = (Object[]) result;
+                counts.put(pair[0], pair[1]);
+            }
+        }
+        return counts;
+    }
+
+    private static StringBuilder selectClause(EntitySchema.Type type, Set<String> selected) {
+        StringBuilder jpql = new StringBuilder("SELECT ");
+        String separator = "";
+        for (String field : selected) {
+            jpql.append(separator).append("e.").append(type.field(field).path);
+            separator = ", ";
+        }
+        return jpql.append(" FROM ").append(type.entity).append(" e WHERE e.tenantId = :tenantId");
+    }
+
+    private static void appendCondition(StringBuilder jpql, Map<String, Object> params, EntitySchema.Field field,
+                                        Object value) {
+        String param = "p" + params.size();
+        String path = "e." + field.path;
+        if (value == null) {
+            jpql.append(" AND ").append(path).append(" IS NULL");
+        } else if (value instanceof Map) {
+            Map<?, ?> operator = (Map<?, ?>) value;
+            if (operator.size() == 1 && operator.containsKey("like") && field.javaType == String.class) {
+                jpql.append(" AND LOWER(").append(path).append(") LIKE :").append(param);
+                params.put(param, "%" + String.valueOf(operator.get("like")).toLowerCase(Locale.ROOT) + "%");
+            } else if (operator.size() == 1 && operator.get("in") instanceof List) {
+                List<Object> values = new ArrayList<>();
+                for (Object element : (List<?>) operator.get("in")) {
+                    values.add(coerce(field, element));
+                }
+                if (values.isEmpty()) {
+                    jpql.append(" AND 1 = 0");
+                } else {
+                    jpql.append(" AND ").append(path).append(" IN :").append(param);
+                    params.put(param, values);
+                }
+            } else {
+                throw new QueryException("Unsupported condition on '" + field.name + "': " + operator);
+            }
+        } else {
+            jpql.append(" AND ").append(path).append(" = :").append(param);
+            params.put(param, coerce(field, value));
+        }
+    }
+
+    private static Object coerce(EntitySchema.Field field, Object value) {
+        if (field.javaType == String.class && value instanceof String) {
+            return value;
+        }
+        if (value instanceof Number) {
+            Number number = (Number) value;
+            if (field.javaType == Long.class) {
+                return number.longValue();
+            }
+            if (field.javaType == Integer.class) {
+                return number.intValue();
+            }
+            if (field.javaType == Double.class) {
+                return number.doubleValue();
+            }
+        }
+        throw new QueryException("Cannot compare '" + field.name + "' with " + value);
+    }
+
+    private static List<String> requestedFields(EntitySchema.Type type, QueryNode node) {
+        if (node.getFields() == null || node.getFields().isEmpty()) {
+            return new ArrayList<>(type.fields.keySet());
+        }
+        return node.getFields();
+    }
+
+    private static List<Map<String, Object>> toRows(List<?> results, Set<String> selected) {
+        List<Map<String, Object>> rows = new ArrayList<>(results.size());
+        for (Object result : results) {
+            Object[] values = result instanceof Object[] ? (Object[]) result : new Object[]{result};
+            Map<String, Object> row = new LinkedHashMap<>();
+            int i = 0;
+            for (String field : selected) {
+                row.put(field, values[i++]);
+            }
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    private static Set<Object> distinctValues(List<Map<String, Object>> rows, String field) {
+        Set<Object> values = new LinkedHashSet<>();
+        for (Map<String, Object> row : rows) {
+            Object value = row.get(field);
+            if (value != null) {
+                values.add(value);
+            }
+        }
+        return values;
+    }
+
+    private static List<List<Object>> chunks(Collection<?> keys) {
+        List<List<Object>> chunks = new ArrayList<>();
+        List<Object> current = new ArrayList<>(Math.min(keys.size(), IN_CHUNK_SIZE));
+        for (Object key : keys) {
+            current.add(key);
+            if (current.size() == IN_CHUNK_SIZE) {
+                chunks.add(current);
+                current = new ArrayList<>(IN_CHUNK_SIZE);
+            }
+        }
+        if (!current.isEmpty()) {
+            chunks.add(current);
+        }
+        return chunks;
+    }
+}
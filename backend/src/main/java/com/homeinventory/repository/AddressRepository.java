@@ -1,9 +1,23 @@
 package com.homeinventory.repository;
 
 import com.homeinventory.entity.Address;
+import com.homeinventory.tenant.TenantContext;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
+import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface AddressRepository extends JpaRepository<Address, Long> {
+    List<Address> findByTenantId(String tenantId);
+
+    Optional<Address> findByIdAndTenantId(Long id, String tenantId);
+
+    default List<Address> findAllInTenant() {
+        return findByTenantId(TenantContext.getTenantId());
+    }
+
+    default Optional<Address> findByIdInTenant(Long id) {
+        return findByIdAndTenantId(id, TenantContext.getTenantId());
+    }
 }
@@ -1,9 +1,23 @@
 package com.homeinventory.repository;
 
 import com.homeinventory.entity.Category;
+import com.homeinventory.tenant.TenantContext;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
+import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface CategoryRepository extends JpaRepository<Category, Long> {
+    List<Category> findByTenantId(String tenantId);
+
+    Optional<Category> findByIdAndTenantId(Long id, String tenantId);
+
+    default List<Category> findAllInTenant() {
+        return findByTenantId(TenantContext.getTenantId());
+    }
+
+    default Optional<Category> findByIdInTenant(Long id) {
+        return findByIdAndTenantId(id, TenantContext.getTenantId());
+    }
 }
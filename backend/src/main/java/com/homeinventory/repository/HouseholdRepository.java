@@ -0,0 +1,11 @@
+package com.homeinventory.repository;
+
+import com.homeinventory.entity.Household;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import java.util.Optional;
+
+@Repository
+public interface HouseholdRepository extends JpaRepository<Household, String> {
+    Optional<Household> findByKeyHash(String keyHash);
+}
@@ -1,11 +1,54 @@
 package com.homeinventory.repository;
 
 import com.homeinventory.entity.ItemPhoto;
+import com.homeinventory.tenant.TenantContext;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface ItemPhotoRepository extends JpaRepository<ItemPhoto, Long> {
-    List<ItemPhoto> findByItemId(Long itemId);
+    List<ItemPhoto> findByTenantId(String tenantId);
+
+    Optional<ItemPhoto> findByIdAndTenantId(Long id, String tenantId);
+
+    default List<ItemPhoto> findAllInTenant() {
+        return findByTenantId(TenantContext.getTenantId());
+    }
+
+    default Optional<ItemPhoto> findByIdInTenant(Long id) {
+        return findByIdAndTenantId(id, TenantContext.getTenantId());
+    }
+
+    List<ItemPhoto> findByTenantIdAndItemId(String tenantId, Long itemId);
+
+    default List<ItemPhoto> findByItemIdInTenant(Long itemId) {
+        return findByTenantIdAndItemId(TenantContext.getTenantId(), itemId);
+    }
+
+    @Query("SELECT p FROM ItemPhoto p JOIN FETCH p.item i WHERE p.tenantId = :tenantId AND i.storageLocation.room.id = :roomId ORDER BY p.id")
+    List<ItemPhoto> findByTenantIdAndRoomId(@Param("tenantId") String tenantId, @Param("roomId") Long roomId);
+
+    default List<ItemPhoto> findByRoomIdInTenant(Long roomId) {
+        return findByTenantIdAndRoomId(TenantContext.getTenantId(), roomId);
+    }
+
+    @Query("SELECT p.photoPath FROM ItemPhoto p WHERE p.tenantId = :tenantId")
+    List<String> findPhotoPathsByTenantId(@Param("tenantId") String tenantId);
+
+    /**
+     * Used by background maintenance across all households; returns {photoPath, tenantId} rows.
+     */
+    @Query("SELECT p.photoPath, p.tenantId FROM ItemPhoto p WHERE p.photoPath IN :paths")
+    List<Object[]> findTenantsByPhotoPaths(@Param("paths") Collection<String> paths);
+
+    /**
+     * Used by duplicate detection across all households; returns {itemId, photoPath, tenantId} rows.
+     */
+    @Query("SELECT p.item.id, p.photoPath, p.tenantId FROM ItemPhoto p")
+    List<Object[]> findAllPhotoPaths();
 }
@@ -1,16 +1,53 @@
 package com.homeinventory.repository;
 
 import com.homeinventory.entity.Item;
+import com.homeinventory.tenant.TenantContext;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface ItemRepository extends JpaRepository<Item, Long> {
-    List<Item> findByStorageLocationId(Long storageLocationId);
+    List<Item> findByTenantId(String tenantId);
 
-    @Query("SELECT i FROM Item i WHERE i.name LIKE %:keyword% OR i.description LIKE %:keyword%")
-    List<Item> searchByKeyword(@Param("keyword") String keyword);
+    Optional<Item> findByIdAndTenantId(Long id, String tenantId);
+
+    default List<Item> findAllInTenant() {
+        return findByTenantId(TenantContext.getTenantId());
+    }
+
+    default Optional<Item> findByIdInTenant(Long id) {
+        return findByIdAndTenantId(id, TenantContext.getTenantId());
+    }
+
+    List<Item> findByTenantIdAndStorageLocationId(String tenantId, Long storageLocationId);
+
+    @Query("SELECT i FROM Item i WHERE i.tenantId = :tenantId AND (i.name LIKE %:keyword% OR i.description LIKE %:keyword%)")
+    List<Item> searchByKeyword(@Param("tenantId") String tenantId, @Param("keyword") String keyword);
+
+    default List<Item> findByStorageLocationIdInTenant(Long storageLocationId) {
+        return findByTenantIdAndStorageLocationId(TenantContext.getTenantId(), storageLocationId);
+    }
+
+    default List<Item> searchByKeywordInTenant(String keyword) {
+        return searchByKeyword(TenantContext.getTenantId(), keyword);
+    }
+
+    /**
+     * Used by duplicate detection across all households; returns {id, name, tenantId} rows.
+     */
+    @Query("SELECT i.id, i.name, i.tenantId FROM Item i")
+    List<Object[]> findAllNames();
+
+    /** Returns {id, name} rows for those of the given ids that still exist. */
+    @Query("SELECT i.id, i.name FROM Item i WHERE i.tenantId = :tenantId AND i.id IN :ids")
+    List<Object[]> findNamesByIds(@Param("tenantId") String tenantId, @Param("ids") Collection<Long> ids);
+
+    default List<Object[]> findNamesByIdsInTenant(Collection<Long> ids) {
+        return findNamesByIds(TenantContext.getTenantId(), ids);
+    }
 }
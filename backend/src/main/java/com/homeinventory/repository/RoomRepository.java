@@ -1,11 +1,29 @@
 package com.homeinventory.repository;
 
 import com.homeinventory.entity.Room;
+import com.homeinventory.tenant.TenantContext;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface RoomRepository extends JpaRepository<Room, Long> {
-    List<Room> findByAddressId(Long addressId);
+    List<Room> findByTenantId(String tenantId);
+
+    Optional<Room> findByIdAndTenantId(Long id, String tenantId);
+
+    default List<Room> findAllInTenant() {
+        return findByTenantId(TenantContext.getTenantId());
+    }
+
+    default Optional<Room> findByIdInTenant(Long id) {
+        return findByIdAndTenantId(id, TenantContext.getTenantId());
+    }
+
+    List<Room> findByTenantIdAndAddressId(String tenantId, Long addressId);
+
+    default List<Room> findByAddressIdInTenant(Long addressId) {
+        return findByTenantIdAndAddressId(TenantContext.getTenantId(), addressId);
+    }
 }
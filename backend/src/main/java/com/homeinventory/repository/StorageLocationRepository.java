@@ -1,11 +1,29 @@
 package com.homeinventory.repository;
 
 import com.homeinventory.entity.StorageLocation;
+import com.homeinventory.tenant.TenantContext;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface StorageLocationRepository extends JpaRepository<StorageLocation, Long> {
-    List<StorageLocation> findByRoomId(Long roomId);
+    List<StorageLocation> findByTenantId(String tenantId);
+
+    Optional<StorageLocation> findByIdAndTenantId(Long id, String tenantId);
+
+    default List<StorageLocation> findAllInTenant() {
+        return findByTenantId(TenantContext.getTenantId());
+    }
+
+    default Optional<StorageLocation> findByIdInTenant(Long id) {
+        return findByIdAndTenantId(id, TenantContext.getTenantId());
+    }
+
+    List<StorageLocation> findByTenantIdAndRoomId(String tenantId, Long roomId);
+
+    default List<StorageLocation> findByRoomIdInTenant(Long roomId) {
+        return findByTenantIdAndRoomId(TenantContext.getTenantId(), roomId);
+    }
 }
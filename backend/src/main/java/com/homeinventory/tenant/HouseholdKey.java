@@ -0,0 +1,18 @@
+package com.homeinventory.tenant;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Returned once when a household is created; the key cannot be retrieved again.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class HouseholdKey {
+    private String householdId;
+
+    /** Sent by the household's clients in the {@code X-Household-Key} header. */
+    private String key;
+}
@@ -0,0 +1,70 @@
+package com.homeinventory.tenant;
+
+import com.homeinventory.entity.Household;
+import com.homeinventory.repository.HouseholdRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Issues household access keys and maps presented keys back to a tenant id. Keys are 256
+ * random bits, so only their SHA-256 is stored and compared.
+ */
+@Service
+public class HouseholdService {
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    @Autowired
+    private HouseholdRepository householdRepository;
+
+    /** Households are never deleted, so resolved keys stay valid. */
+    private final Map<String, String> tenantByKeyHash = new ConcurrentHashMap<>();
+
+    public HouseholdKey createHousehold() {
+        byte[] secret = new byte[32];
+        RANDOM.nextBytes(secret);
+        String key = Base64.getUrlEncoder().withoutPadding().encodeToString(secret);
+
+        Household household = new Household();
+        household.setId(UUID.randomUUID().toString());
+        household.setKeyHash(hash(key));
+        householdRepository.save(household);
+        return new HouseholdKey(household.getId(), key);
+    }
+
+    /**
+     * @return the tenant id of the household the key belongs to, empty if the key is unknown
+     */
+    public Optional<String> resolveTenant(String key) {
+        String keyHash = hash(key);
+        String tenantId = tenantByKeyHash.get(keyHash);
+        if (tenantId != null) {
+            return Optional.of(tenantId);
+        }
+        Optional<String> found = householdRepository.findByKeyHash(keyHash).map(Household::getId);
+        found.ifPresent(id -> tenantByKeyHash.put(keyHash, id));
+        return found;
+    }
+
+    private static String hash(String key) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(key.getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder(digest.length * 2);
+            for (byte b : digest) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
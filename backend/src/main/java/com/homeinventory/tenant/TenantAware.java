@@ -0,0 +1,10 @@
+package com.homeinventory.tenant;
+
+/**
+ * Implemented by every entity that belongs to a single household.
+ */
+public interface TenantAware {
+    String getTenantId();
+
+    void setTenantId(String tenantId);
+}
@@ -0,0 +1,29 @@
+package com.homeinventory.tenant;
+
+/**
+ * Holds the household the current request is acting for. Set by {@link TenantFilter}
+ * for the duration of each request and read by the repositories' {@code *InTenant}
+ * methods and by {@link TenantScopedRepository}, which scopes the inherited JpaRepository
+ * methods. Outside a request it falls back to {@link #DEFAULT_TENANT}.
+ */
+public final class TenantContext {
+    public static final String DEFAULT_TENANT = "default";
+
+    private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+
+    private TenantContext() {
+    }
+
+    public static String getTenantId() {
+        String tenantId = CURRENT.get();
+        return tenantId != null ? tenantId : DEFAULT_TENANT;
+    }
+
+    public static void setTenantId(String tenantId) {
+        CURRENT.set(tenantId);
+    }
+
+    public static void clear() {
+        CURRENT.remove();
+    }
+}
@@ -0,0 +1,15 @@
+package com.homeinventory.tenant;
+
+import javax.persistence.PrePersist;
+
+/**
+ * Stamps new rows with the current household, ignoring whatever the client sent.
+ */
+public class TenantEntityListener {
+    @PrePersist
+    public void assignTenant(Object entity) {
+        if (entity instanceof TenantAware) {
+            ((TenantAware) entity).setTenantId(TenantContext.getTenantId());
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.homeinventory.tenant;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Optional;
+
+/**
+ * Resolves the household from the access key in the {@code X-Household-Key} header (see
+ * {@link HouseholdService}); an unknown key is refused with 401. Requests without a key act on
+ * the {@link TenantContext#DEFAULT_TENANT} household, so existing single-household clients keep
+ * working, unless {@code tenant.default-household-enabled} is off.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class TenantFilter extends OncePerRequestFilter {
+    public static final String HEADER = "X-Household-Key";
+
+    /** Used to select a household without a key; refused so old clients fail loudly. */
+    private static final String LEGACY_HEADER = "X-Household-Id";
+
+    @Autowired
+    private HouseholdService householdService;
+
+    @Value("${tenant.default-household-enabled:true}")
+    private boolean defaultHouseholdEnabled;
+
+    /** Uploaded photos are loaded by {@code <img>} tags, which cannot send the key. */
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (request.getHeader(LEGACY_HEADER) != null) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, LEGACY_HEADER + " is not supported, send " + HEADER);
+            return;
+        }
+
+        String key = request.getHeader(HEADER);
+        String tenantId;
+        if (key == null || key.isEmpty()) {
+            if (!defaultHouseholdEnabled && !isKeyOptional(request)) {
+                response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "Missing " + HEADER + " header");
+                return;
+            }
+            tenantId = TenantContext.DEFAULT_TENANT;
+        } else {
+            Optional<String> resolved = householdService.resolveTenant(key);
+            if (!resolved.isPresent()) {
+                response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "Unknown " + HEADER);
+                return;
+            }
+            tenantId = resolved.get();
+        }
+
+        TenantContext.setTenantId(tenantId);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            TenantContext.clear();
+        }
+    }
+
+    /** CORS preflights never carry custom headers, and creating a household needs no key. */
+    private static boolean isKeyOptional(HttpServletRequest request) {
+        return "OPTIONS".equals(request.getMethod())
+                || ("POST".equals(request.getMethod()) && "/api/households".equals(request.getRequestURI()));
+    }
+}
@@ -0,0 +1,23 @@
+package com.homeinventory.tenant;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.data.jpa.repository.support.JpaRepositoryFactoryBean;
+import org.springframework.stereotype.Component;
+
+/**
+ * Makes {@link TenantScopedRepository} the base class of every Spring Data repository.
+ *
+ * Done here rather than with {@code @EnableJpaRepositories(repositoryBaseClass = ...)},
+ * because that annotation switches off Spring Boot's repository auto-configuration, and with
+ * it {@code spring.data.jpa.repositories.bootstrap-mode}, which the lean profile sets.
+ */
+@Component
+public class TenantRepositoryConfigurer implements BeanPostProcessor {
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName) {
+        if (bean instanceof JpaRepositoryFactoryBean) {
+            ((JpaRepositoryFactoryBean<?, ?, ?>) bean).setRepositoryBaseClass(TenantScopedRepository.class);
+        }
+        return bean;
+    }
+}
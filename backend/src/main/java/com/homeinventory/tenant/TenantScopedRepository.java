@@ -0,0 +1,214 @@
+package com.homeinventory.tenant;
+
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.support.JpaEntityInformation;
+import org.springframework.data.jpa.repository.support.SimpleJpaRepository;
+import org.springframework.data.repository.query.FluentQuery;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityNotFoundException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Base class of every repository (installed by {@link TenantRepositoryConfigurer}): the
+ * methods inherited from {@code JpaRepository} only see rows of the household in
+ * {@link TenantContext}, so a call that forgets the {@code *InTenant} variant cannot read,
+ * overwrite or delete another household's data.
+ *
+ * Declared query methods ({@code findBy...}, {@code @Query}) are not rewritten; they take the
+ * tenant as a parameter, which is what lets background jobs work across households.
+ * Query-by-example is refused because it cannot be scoped.
+ */
+@Transactional(readOnly = true)
+public class TenantScopedRepository<T, ID> extends SimpleJpaRepository<T, ID> {
+    private final JpaEntityInformation<T, ?> entityInformation;
+
+    public TenantScopedRepository(JpaEntityInformation<T, ?> entityInformation, EntityManager entityManager) {
+        super(entityInformation, entityManager);
+        this.entityInformation = entityInformation;
+    }
+
+    @Override
+    public List<T> findAll() {
+        return super.findAll(inTenant());
+    }
+
+    @Override
+    public List<T> findAll(Sort sort) {
+        return super.findAll(inTenant(), sort);
+    }
+
+    @Override
+    public Page<T> findAll(Pageable pageable) {
+        return super.findAll(inTenant(), pageable);
+    }
+
+    @Override
+    public List<T> findAllById(Iterable<ID> ids) {
+        List<T> found = new ArrayList<>();
+        for (T entity : super.findAllById(ids)) {
+            if (isInTenant(entity)) {
+                found.add(entity);
+            }
+        }
+        return found;
+    }
+
+    @Override
+    public Optional<T> findById(ID id) {
+        return super.findById(id).filter(this::isInTenant);
+    }
+
+    @Override
+    public boolean existsById(ID id) {
+        return findById(id).isPresent();
+    }
+
+    @Override
+    public long count() {
+        return super.count(inTenant());
+    }
+
+    @Deprecated
+    @Override
+    public T getOne(ID id) {
+        return getReferenceById(id);
+    }
+
+    @Deprecated
+    @Override
+    public T getById(ID id) {
+        return getReferenceById(id);
+    }
+
+    /** Loads the row instead of returning an unchecked proxy. */
+    @Override
+    public T getReferenceById(ID id) {
+        return findById(id).orElseThrow(() -> new EntityNotFoundException(
+                "No " + entityInformation.getJavaType().getSimpleName() + " with id " + id));
+    }
+
+    @Override
+    @Transactional
+    public <S extends T> S save(S entity) {
+        if (!entityInformation.isNew(entity) && !isInTenant(entity) && !existsById(idOf(entity))) {
+            throw new EmptyResultDataAccessException(
+                    "No " + entityInformation.getJavaType().getSimpleName() + " with id " + idOf(entity), 1);
+        }
+        return super.save(entity);
+    }
+
+    @Override
+    @Transactional
+    public void deleteById(ID id) {
+        delete(findById(id).orElseThrow(() -> new EmptyResultDataAccessException(
+                "No " + entityInformation.getJavaType().getSimpleName() + " with id " + id, 1)));
+    }
+
+    /** Deletes the household's row with the entity's id; the argument may be a detached copy. */
+    @Override
+    @Transactional
+    public void delete(T entity) {
+        ID id = idOf(entity);
+        if (id != null) {
+            findById(id).ifPresent(super::delete);
+        }
+    }
+
+    @Override
+    @Transactional
+    public void deleteAll() {
+        for (T entity : findAll()) {
+            super.delete(entity);
+        }
+    }
+
+    @Override
+    @Transactional
+    public void deleteAllInBatch() {
+        super.deleteAllInBatch(findAll());
+    }
+
+    @Override
+    @Transactional
+    public void deleteAllInBatch(Iterable<T> entities) {
+        List<ID> ids = new ArrayList<>();
+        for (T entity : entities) {
+            ids.add(idOf(entity));
+        }
+        super.deleteAllInBatch(findAllById(ids));
+    }
+
+    @Override
+    @Transactional
+    public void deleteAllByIdInBatch(Iterable<ID> ids) {
+        super.deleteAllInBatch(findAllById(ids));
+    }
+
+    @Override
+    public <S extends T> Optional<S> findOne(Example<S> example) {
+        throw unscoped();
+    }
+
+    @Override
+    public <S extends T> long count(Example<S> example) {
+        throw unscoped();
+    }
+
+    @Override
+    public <S extends T> boolean exists(Example<S> example) {
+        throw unscoped();
+    }
+
+    @Override
+    public <S extends T> List<S> findAll(Example<S> example) {
+        throw unscoped();
+    }
+
+    @Override
+    public <S extends T> List<S> findAll(Example<S> example, Sort sort) {
+        throw unscoped();
+    }
+
+    @Override
+    public <S extends T> Page<S> findAll(Example<S> example, Pageable pageable) {
+        throw unscoped();
+    }
+
+    @Override
+    public <S extends T, R> R findBy(Example<S> example, Function<FluentQuery.FetchableFluentQuery<S>, R> queryFunction) {
+        throw unscoped();
+    }
+
+    /** No restriction (null) for entities that are not per household, such as households themselves. */
+    private Specification<T> inTenant() {
+        if (!TenantAware.class.isAssignableFrom(entityInformation.getJavaType())) {
+            return null;
+        }
+        String tenantId = TenantContext.getTenantId();
+        return (root, query, builder) -> builder.equal(root.get("tenantId"), tenantId);
+    }
+
+    private boolean isInTenant(Object entity) {
+        return !(entity instanceof TenantAware)
+                || TenantContext.getTenantId().equals(((TenantAware) entity).getTenantId());
+    }
+
+    @SuppressWarnings("unchecked")
+    private ID idOf(T entity) {
+        return (ID) entityInformation.getId(entity);
+    }
+
+    private static UnsupportedOperationException unscoped() {
+        return new UnsupportedOperationException("Query by example is not scoped to the household; declare a query method instead");
+    }
+}
@@ -0,0 +1,84 @@
+package com.homeinventory.traffic;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Concurrency limit that adapts to observed latency (AIMD). While the smoothed request
+ * latency stays under the target the limit grows by roughly one per limit-many completed
+ * requests; once it exceeds the target the limit shrinks by 10%, at most once per
+ * target-latency interval so a single slow burst does not collapse it. Requests arriving while
+ * the number in flight is at the limit can be shed before they queue up on Tomcat threads
+ * and the database connection pool.
+ */
+public class AdaptiveConcurrencyLimit {
+    private static final double SMOOTHING = 0.1;
+
+    private final int minLimit;
+
+    private final int maxLimit;
+
+    private final double targetLatencyMs;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private double limit;
+
+    private double smoothedLatencyMs;
+
+    private long lastDecrease;
+
+    public AdaptiveConcurrencyLimit(int minLimit, int maxLimit, double targetLatencyMs) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.targetLatencyMs = targetLatencyMs;
+        this.limit = maxLimit;
+        this.lastDecrease = System.nanoTime() - (long) (targetLatencyMs * 1_000_000d);
+    }
+
+    /**
+     * @param ceiling how far the request may push the in-flight count: {@link #getLimit()}
+     *                for sheddable requests, {@link #getMaxLimit()} for the rest
+     * @return false if the request should be shed; otherwise the caller must call
+     *         {@link #release(long)} when it completes
+     */
+    public boolean tryAcquire(int ceiling) {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= ceiling) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    public synchronized void release(long latencyNanos) {
+        inFlight.decrementAndGet();
+        double latencyMs = latencyNanos / 1_000_000d;
+        smoothedLatencyMs = smoothedLatencyMs == 0
+                ? latencyMs
+                : smoothedLatencyMs + SMOOTHING * (latencyMs - smoothedLatencyMs);
+        long now = System.nanoTime();
+        if (smoothedLatencyMs > targetLatencyMs) {
+            if (now - lastDecrease >= targetLatencyMs * 1_000_000d) {
+                limit = Math.max(minLimit, limit * 0.9);
+                lastDecrease = now;
+            }
+        } else {
+            limit = Math.min(maxLimit, limit + 1 / limit);
+        }
+    }
+
+    public synchronized int getLimit() {
+        return (int) limit;
+    }
+
+    public int getMaxLimit() {
+        return maxLimit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+}
@@ -0,0 +1,54 @@
+package com.homeinventory.traffic;
+
+/**
+ * Classic token bucket: holds up to {@code capacity} tokens and refills continuously at
+ * {@code refillPerSecond}.
+ */
+public class TokenBucket {
+    private final double capacity;
+
+    private final double refillPerNano;
+
+    private double tokens;
+
+    private long lastRefill;
+
+    public TokenBucket(double capacity, double refillPerSecond) {
+        this.capacity = capacity;
+        this.refillPerNano = refillPerSecond / 1_000_000_000d;
+        this.tokens = capacity;
+        this.lastRefill = System.nanoTime();
+    }
+
+    public synchronized boolean tryAcquire() {
+        refill();
+        if (tokens >= 1) {
+            tokens -= 1;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * @return seconds until the next token is available, at least 1
+     */
+    public synchronized long secondsUntilNextToken() {
+        refill();
+        double missing = 1 - tokens;
+        return Math.max(1, (long) Math.ceil(missing / (refillPerNano * 1_000_000_000d)));
+    }
+
+    /**
+     * @return true if the bucket has refilled completely, so dropping it loses no state
+     */
+    public synchronized boolean isFull() {
+        refill();
+        return tokens >= capacity;
+    }
+
+    private void refill() {
+        long now = System.nanoTime();
+        tokens = Math.min(capacity, tokens + (now - lastRefill) * refillPerNano);
+        lastRefill = now;
+    }
+}
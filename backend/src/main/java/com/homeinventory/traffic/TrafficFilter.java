@@ -0,0 +1,132 @@
+package com.homeinventory.traffic;
+
+import com.homeinventory.tenant.TenantContext;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.annotation.PostConstruct;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Protects the API from bursts: a token bucket per client address and one per household
+ * answer 429 once either is exhausted, and reads are shed with 503 while the
+ * number of requests in flight is at the {@link AdaptiveConcurrencyLimit}. Writes are only
+ * refused at the hard maximum so that user edits are not dropped under read load.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class TrafficFilter extends OncePerRequestFilter {
+    @Value("${traffic.rate-limit.capacity:120}")
+    private double bucketCapacity;
+
+    @Value("${traffic.rate-limit.refill-per-second:30}")
+    private double refillPerSecond;
+
+    @Value("${traffic.rate-limit.household-capacity:240}")
+    private double householdCapacity;
+
+    @Value("${traffic.rate-limit.household-refill-per-second:60}")
+    private double householdRefillPerSecond;
+
+    @Value("${traffic.shedding.min-limit:8}")
+    private int minLimit;
+
+    @Value("${traffic.shedding.max-limit:150}")
+    private int maxLimit;
+
+    @Value("${traffic.shedding.target-latency-ms:250}")
+    private double targetLatencyMs;
+
+    @Value("${traffic.trust-forwarded-for:false}")
+    private boolean trustForwardedFor;
+
+    private final Map<String, TokenBucket> clientBuckets = new ConcurrentHashMap<>();
+
+    private final Map<String, TokenBucket> householdBuckets = new ConcurrentHashMap<>();
+
+    private AdaptiveConcurrencyLimit concurrencyLimit;
+
+    @PostConstruct
+    public void init() {
+        concurrencyLimit = new AdaptiveConcurrencyLimit(minLimit, maxLimit, targetLatencyMs);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/") || "OPTIONS".equals(request.getMethod());
+    }
+
+    /** {@code POST /api/query} carries its query in the body but never writes. */
+    private static boolean isRead(HttpServletRequest request) {
+        return "GET".equals(request.getMethod()) || "/api/query".equals(request.getRequestURI());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        // The household comes from a request header, so it only gets a bucket once the
+        // client address has paid for the request; otherwise new values would mint new buckets
+        TokenBucket clientBucket = clientBuckets.computeIfAbsent(clientAddress(request),
+                key -> new TokenBucket(bucketCapacity, refillPerSecond));
+        if (!clientBucket.tryAcquire()) {
+            reject(response, 429, clientBucket.secondsUntilNextToken(), "Too many requests");
+            return;
+        }
+        TokenBucket householdBucket = householdBuckets.computeIfAbsent(TenantContext.getTenantId(),
+                key -> new TokenBucket(householdCapacity, householdRefillPerSecond));
+        if (!householdBucket.tryAcquire()) {
+            reject(response, 429, householdBucket.secondsUntilNextToken(), "Too many requests");
+            return;
+        }
+
+        int ceiling = isRead(request) ? concurrencyLimit.getLimit() : concurrencyLimit.getMaxLimit();
+        if (!concurrencyLimit.tryAcquire(ceiling)) {
+            reject(response, HttpServletResponse.SC_SERVICE_UNAVAILABLE, 1, "Server busy, retry shortly");
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            concurrencyLimit.release(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Full buckets carry no state, so they can be dropped to bound memory.
+     */
+    @Scheduled(fixedDelay = 60000)
+    public void evictFullBuckets() {
+        clientBuckets.values().removeIf(TokenBucket::isFull);
+        householdBuckets.values().removeIf(TokenBucket::isFull);
+    }
+
+    private String clientAddress(HttpServletRequest request) {
+        String address = request.getRemoteAddr();
+        if (trustForwardedFor) {
+            String forwardedFor = request.getHeader("X-Forwarded-For");
+            if (forwardedFor != null && !forwardedFor.isEmpty()) {
+                address = forwardedFor.split(",")[0].trim();
+            }
+        }
+        return address;
+    }
+
+    private static void reject(HttpServletResponse response, int status, long retryAfterSeconds, String message)
+            throws IOException {
+        // Controllers allow any origin; without this the browser would hide the status code
+        response.setHeader("Access-Control-Allow-Origin", "*");
+        response.setHeader("Retry-After", String.valueOf(retryAfterSeconds));
+        response.sendError(status, message);
+    }
+}
@@ -0,0 +1,79 @@
+-- Schema for the lean profile, matching the JPA entity mappings.
+-- Hibernate schema generation is disabled there, so keep this in sync with the entities.
+
+CREATE TABLE IF NOT EXISTS addresses (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    tenant_id VARCHAR(64) NOT NULL,
+    name VARCHAR(255) NOT NULL,
+    address VARCHAR(255),
+    created_at TIMESTAMP NOT NULL,
+    updated_at TIMESTAMP
+);
+CREATE INDEX IF NOT EXISTS idx_addresses_tenant ON addresses (tenant_id);
+
+CREATE TABLE IF NOT EXISTS rooms (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    tenant_id VARCHAR(64) NOT NULL,
+    address_id BIGINT NOT NULL,
+    name VARCHAR(255) NOT NULL,
+    floor_plan_data TEXT,
+    created_at TIMESTAMP NOT NULL,
+    updated_at TIMESTAMP,
+    FOREIGN KEY (address_id) REFERENCES addresses (id)
+);
+CREATE INDEX IF NOT EXISTS idx_rooms_tenant_address ON rooms (tenant_id, address_id);
+
+CREATE TABLE IF NOT EXISTS storage_locations (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    tenant_id VARCHAR(64) NOT NULL,
+    room_id BIGINT NOT NULL,
+    name VARCHAR(255) NOT NULL,
+    type VARCHAR(255),
+    position_x DOUBLE,
+    position_y DOUBLE,
+    created_at TIMESTAMP NOT NULL,
+    updated_at TIMESTAMP,
+    FOREIGN KEY (room_id) REFERENCES rooms (id)
+);
+CREATE INDEX IF NOT EXISTS idx_storage_locations_tenant_room ON storage_locations (tenant_id, room_id);
+
+CREATE TABLE IF NOT EXISTS categories (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    tenant_id VARCHAR(64) NOT NULL,
+    name VARCHAR(255) NOT NULL,
+    icon VARCHAR(255),
+    created_at TIMESTAMP NOT NULL,
+    CONSTRAINT uk_categories_tenant_name UNIQUE (tenant_id, name)
+);
+
+CREATE TABLE IF NOT EXISTS items (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    tenant_id VARCHAR(64) NOT NULL,
+    storage_location_id BIGINT NOT NULL,
+    category_id BIGINT,
+    name VARCHAR(255) NOT NULL,
+    description VARCHAR(255),
+    quantity INTEGER NOT NULL,
+    created_at TIMESTAMP NOT NULL,
+    updated_at TIMESTAMP,
+    FOREIGN KEY (storage_location_id) REFERENCES storage_locations (id),
+    FOREIGN KEY (category_id) REFERENCES categories (id)
+);
+CREATE INDEX IF NOT EXISTS idx_items_tenant_location ON items (tenant_id, storage_location_id);
+CREATE INDEX IF NOT EXISTS idx_items_tenant_name ON items (tenant_id, name);
+
+CREATE TABLE IF NOT EXISTS item_photos (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    tenant_id VARCHAR(64) NOT NULL,
+    item_id BIGINT NOT NULL,
+    photo_path VARCHAR(255) NOT NULL,
+    created_at TIMESTAMP NOT NULL,
+    FOREIGN KEY (item_id) REFERENCES items (id)
+);
+CREATE INDEX IF NOT EXISTS idx_item_photos_tenant_item ON item_photos (tenant_id, item_id);
+
+CREATE TABLE IF NOT EXISTS households (
+    id VARCHAR(64) PRIMARY KEY,
+    key_hash VARCHAR(64) NOT NULL UNIQUE,
+    created_at TIMESTAMP NOT NULL
+);
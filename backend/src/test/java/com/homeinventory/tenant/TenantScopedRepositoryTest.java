@@ -0,0 +1,142 @@
+package com.homeinventory.tenant;
+
+import com.homeinventory.entity.Address;
+import com.homeinventory.repository.AddressRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.data.domain.Example;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import javax.persistence.EntityNotFoundException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Every method {@link TenantScopedRepository} overrides must leave another household's rows
+ * invisible and untouched.
+ */
+@DataJpaTest
+@Import(TenantRepositoryConfigurer.class)
+class TenantScopedRepositoryTest {
+    private static final String OWN = "own";
+
+    private static final String OTHER = "other";
+
+    @Autowired
+    private AddressRepository addressRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private Long ownId;
+
+    private Long otherId;
+
+    @BeforeEach
+    void createOneAddressPerHousehold() {
+        TenantContext.setTenantId(OTHER);
+        otherId = addressRepository.save(address("Other home")).getId();
+        TenantContext.setTenantId(OWN);
+        ownId = addressRepository.save(address("Own home")).getId();
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @AfterEach
+    void clearTenant() {
+        TenantContext.clear();
+    }
+
+    @Test
+    void readsOnlySeeOwnHousehold() {
+        assertEquals(Collections.singletonList(ownId), ids(addressRepository.findAll()));
+        assertEquals(Collections.singletonList(ownId), ids(addressRepository.findAll(Sort.by("id"))));
+        assertEquals(Collections.singletonList(ownId), ids(addressRepository.findAll(PageRequest.of(0, 10)).getContent()));
+        assertEquals(Collections.singletonList(ownId), ids(addressRepository.findAllById(Arrays.asList(ownId, otherId))));
+        assertEquals(1, addressRepository.count());
+        assertTrue(addressRepository.findById(ownId).isPresent());
+        assertFalse(addressRepository.findById(otherId).isPresent());
+        assertFalse(addressRepository.existsById(otherId));
+    }
+
+    @Test
+    @SuppressWarnings("deprecation")
+    void referencesToOtherHouseholdAreNotFound() {
+        assertThrows(EntityNotFoundException.class, () -> addressRepository.getReferenceById(otherId));
+        assertThrows(EntityNotFoundException.class, () -> addressRepository.getById(otherId));
+        assertThrows(EntityNotFoundException.class, () -> addressRepository.getOne(otherId));
+    }
+
+    @Test
+    void saveRefusesToOverwriteOtherHousehold() {
+        Address copy = address("Taken over");
+        copy.setId(otherId);
+        assertThrows(EmptyResultDataAccessException.class, () -> addressRepository.save(copy));
+        entityManager.clear();
+
+        assertEquals("Other home", otherAddress().getName());
+    }
+
+    @Test
+    void deletesLeaveOtherHouseholdAlone() {
+        Address copy = address("Other home");
+        copy.setId(otherId);
+        assertThrows(EmptyResultDataAccessException.class, () -> addressRepository.deleteById(otherId));
+        addressRepository.delete(copy);
+        addressRepository.deleteAllInBatch(Collections.singletonList(copy));
+        addressRepository.deleteAllByIdInBatch(Collections.singletonList(otherId));
+        addressRepository.deleteAll();
+        addressRepository.deleteAllInBatch();
+        entityManager.flush();
+        entityManager.clear();
+
+        assertEquals(0, addressRepository.count());
+        assertEquals("Other home", otherAddress().getName());
+    }
+
+    @Test
+    void queryByExampleIsRefused() {
+        Example<Address> example = Example.of(address("Other home"));
+        assertThrows(UnsupportedOperationException.class, () -> addressRepository.findAll(example));
+        assertThrows(UnsupportedOperationException.class, () -> addressRepository.findOne(example));
+        assertThrows(UnsupportedOperationException.class, () -> addressRepository.count(example));
+        assertThrows(UnsupportedOperationException.class, () -> addressRepository.exists(example));
+    }
+
+    private Address otherAddress() {
+        TenantContext.setTenantId(OTHER);
+        try {
+            return addressRepository.findById(otherId).orElseThrow(AssertionError::new);
+        } finally {
+            TenantContext.setTenantId(OWN);
+        }
+    }
+
+    private static Address address(String name) {
+        Address address = new Address();
+        address.setName(name);
+        return address;
+    }
+
+    private static List<Long> ids(List<Address> addresses) {
+        List<Long> ids = new ArrayList<>();
+        for (Address address : addresses) {
+            ids.add(address.getId());
+        }
+        return ids;
+    }
+}
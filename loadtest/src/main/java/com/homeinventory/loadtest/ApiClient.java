@@ -0,0 +1,260 @@
+package com.homeinventory.loadtest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Minimal HTTP client for the backend API, dependency-free so the harness runs anywhere a
+ * JDK does. Every call is timed and recorded in {@link Metrics} under a request name.
+ *
+ * Like a browser, one client keeps at most {@code connections} requests open at a time
+ * (6 per origin over HTTP/1.1); further requests of a fan-out wait for a free connection,
+ * and that wait is not part of their recorded latency.
+ */
+public class ApiClient {
+    private static final Pattern FIRST_ID = Pattern.compile("\"id\"\\s*:\\s*(\\d+)");
+
+    private static final String HOUSEHOLD_KEY_HEADER = "X-Household-Key";
+
+    private final String baseUrl;
+
+    /** Null for requests that need no household, such as creating one. */
+    private final String householdKey;
+
+    private final Metrics metrics;
+
+    private final ExecutorService fanOut;
+
+    private final Semaphore connections;
+
+    private final boolean retryRateLimited;
+
+    /** Status of the first failed request since {@link #resetOutcome()}, 200 if none failed. */
+    private final AtomicInteger outcome = new AtomicInteger(200);
+
+    public ApiClient(String baseUrl, String householdKey, Metrics metrics, ExecutorService fanOut, int connections,
+                     boolean retryRateLimited) {
+        this.baseUrl = baseUrl;
+        this.householdKey = householdKey;
+        this.metrics = metrics;
+        this.fanOut = fanOut;
+        this.connections = new Semaphore(connections);
+        this.retryRateLimited = retryRateLimited;
+    }
+
+    public void resetOutcome() {
+        outcome.set(200);
+    }
+
+    /**
+     * @return the status of the first request since {@link #resetOutcome()} that failed for
+     * good (429, 503, other errors, or -1 for I/O failures), or 200
+     */
+    public int outcome() {
+        return outcome.get();
+    }
+
+    public Response get(String name, String path) {
+        return send(name, "GET", path, null, null);
+    }
+
+    public Response postJson(String name, String path, String json) {
+        return send(name, "POST", path, "application/json", json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public Response uploadPhoto(String name, String path, String filename, byte[] image) {
+        String boundary = "----loadtest" + UUID.randomUUID().toString().replace("-", "");
+        ByteArrayOutputStream body = new ByteArrayOutputStream(image.length + 256);
+        try {
+            body.write(("--" + boundary + "\r\n"
+                    + "Content-Disposition: form-data; name=\"file\"; filename=\"" + filename + "\"\r\n"
+                    + "Content-Type: image/png\r\n\r\n").getBytes(StandardCharsets.UTF_8));
+            body.write(image);
+            body.write(("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return send(name, "POST", path, "multipart/form-data; boundary=" + boundary, body.toByteArray());
+    }
+
+    /**
+     * Issues the GETs concurrently and waits for all of them, like the clients'
+     * {@code Promise.all} fan-outs.
+     */
+    public List<Response> getAll(String name, List<String> paths) {
+        List<Future<Response>> futures = new ArrayList<>(paths.size());
+        for (String path : paths) {
+            futures.add(fanOut.submit(() -> get(name, path)));
+        }
+        List<Response> responses = new ArrayList<>(paths.size());
+        for (Future<Response> future : futures) {
+            responses.add(await(future));
+        }
+        return responses;
+    }
+
+    /**
+     * Runs independent request chains concurrently, like several fetches started from one
+     * React {@code useEffect}, and waits for all of them.
+     */
+    public void inParallel(Runnable... chains) {
+        List<Future<?>> futures = new ArrayList<>(chains.length);
+        for (Runnable chain : chains) {
+            futures.add(fanOut.submit(chain));
+        }
+        for (Future<?> future : futures) {
+            await(future);
+        }
+    }
+
+    private static <T> T await(Future<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private Response send(String name, String method, String path, String contentType, byte[] body) {
+        while (true) {
+            Response response;
+            long latency;
+            connections.acquireUninterruptibly();
+            try {
+                long start = System.nanoTime();
+                response = execute(method, path, contentType, body);
+                latency = System.nanoTime() - start;
+            } finally {
+                connections.release();
+            }
+            if (response.status == 429 && retryRateLimited) {
+                sleepQuietly(1000);
+                continue;
+            }
+            if (!response.isOk()) {
+                outcome.compareAndSet(200, response.status);
+            }
+            if (metrics != null) {
+                metrics.record(name, response.status, latency);
+            }
+            return response;
+        }
+    }
+
+    private Response execute(String method, String path, String contentType, byte[] body) {
+        HttpURLConnection connection = null;
+        try {
+            connection = (HttpURLConnection) new URL(baseUrl + path).openConnection();
+            connection.setRequestMethod(method);
+            connection.setConnectTimeout(5000);
+            connection.setReadTimeout(30000);
+            if (householdKey != null) {
+                connection.setRequestProperty(HOUSEHOLD_KEY_HEADER, householdKey);
+            }
+            if (body != null) {
+                connection.setDoOutput(true);
+                connection.setRequestProperty("Content-Type", contentType);
+                connection.setFixedLengthStreamingMode(body.length);
+                try (OutputStream out = connection.getOutputStream()) {
+                    out.write(body);
+                }
+            }
+            int status = connection.getResponseCode();
+            InputStream in = status >= 400 ? connection.getErrorStream() : connection.getInputStream();
+            return new Response(status, in == null ? "" : readFully(in));
+        } catch (IOException e) {
+            return new Response(-1, e.toString());
+        } finally {
+            if (connection != null) {
+                connection.disconnect();
+            }
+        }
+    }
+
+    private static String readFully(InputStream in) throws IOException {
+        try (InputStream input = in) {
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+            byte[] chunk = new byte[8192];
+            int read;
+            while ((read = input.read(chunk)) != -1) {
+                buffer.write(chunk, 0, read);
+            }
+            return new String(buffer.toByteArray(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private static void sleepQuietly(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public static String quote(String value) {
+        StringBuilder quoted = new StringBuilder("\"");
+        for (char c : value.toCharArray()) {
+            if (c == '"' || c == '\\') {
+                quoted.append('\\');
+            }
+            quoted.append(c);
+        }
+        return quoted.append('"').toString();
+    }
+
+    public static class Response {
+        public final int status;
+
+        public final String body;
+
+        Response(int status, String body) {
+            this.status = status;
+            this.body = body;
+        }
+
+        public boolean isOk() {
+            return status >= 200 && status < 300;
+        }
+
+        /**
+         * Entity ids are serialized first, so the first {@code "id"} in a single-entity
+         * response is the entity's own id.
+         */
+        public long id() {
+            Matcher matcher = FIRST_ID.matcher(body);
+            if (!isOk() || !matcher.find()) {
+                throw new IllegalStateException("Unexpected response " + status + ": " + body);
+            }
+            return Long.parseLong(matcher.group(1));
+        }
+
+        /**
+         * @return the value of a top-level string field of a JSON object response
+         */
+        public String field(String name) {
+            Matcher matcher = Pattern.compile("\"" + Pattern.quote(name) + "\"\\s*:\\s*\"([^\"]*)\"").matcher(body);
+            if (!isOk() || !matcher.find()) {
+                throw new IllegalStateException("Unexpected response " + status + ": " + body);
+            }
+            return matcher.group(1);
+        }
+    }
+}
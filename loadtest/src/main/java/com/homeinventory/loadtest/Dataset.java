@@ -0,0 +1,42 @@
+package com.homeinventory.loadtest;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Ids and names of the seeded entities, used by the scenarios to build realistic requests.
+ */
+public class Dataset {
+    public final List<Long> addressIds = new ArrayList<>();
+
+    public final List<Long> roomIds = new ArrayList<>();
+
+    public final Map<Long, Long> addressByRoom = new HashMap<>();
+
+    public final List<Long> itemIds = new ArrayList<>();
+
+    public final List<String> itemNames = new ArrayList<>();
+
+    public enum Size {
+        SMALL(1, 5, 4, 10),
+        MEDIUM(2, 8, 5, 25),
+        LARGE(3, 10, 8, 40);
+
+        final int addresses;
+
+        final int roomsPerAddress;
+
+        final int locationsPerRoom;
+
+        final int itemsPerLocation;
+
+        Size(int addresses, int roomsPerAddress, int locationsPerRoom, int itemsPerLocation) {
+            this.addresses = addresses;
+            this.roomsPerAddress = roomsPerAddress;
+            this.locationsPerRoom = locationsPerRoom;
+            this.itemsPerLocation = itemsPerLocation;
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.homeinventory.loadtest;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Load-test driver. Seeds one or more households through the API, then runs virtual users
+ * that repeatedly pick a {@link Scenario} by weight, with think time in between, and prints
+ * throughput and latency percentiles per request and per scenario.
+ *
+ * <pre>
+ * mvn -q compile exec:java -Dexec.args="--users 20 --duration 60 --dataset medium"
+ * </pre>
+ */
+public class LoadTest {
+    public static void main(String[] args) throws Exception {
+        System.setProperty("java.awt.headless", "true");
+        Map<String, String> options = parseArgs(args);
+        String baseUrl = options.getOrDefault("base-url", "http://localhost:8080/api");
+        int users = Integer.parseInt(options.getOrDefault("users", "20"));
+        int durationSeconds = Integer.parseInt(options.getOrDefault("duration", "60"));
+        int warmupSeconds = Integer.parseInt(options.getOrDefault("warmup", "10"));
+        int thinkMillis = Integer.parseInt(options.getOrDefault("think-ms", "500"));
+        int households = Integer.parseInt(options.getOrDefault("households", "1"));
+        int connections = Integer.parseInt(options.getOrDefault("connections", "6"));
+        long seed = Long.parseLong(options.getOrDefault("seed", "42"));
+        Dataset.Size size = Dataset.Size.valueOf(options.getOrDefault("dataset", "small").toUpperCase(Locale.ROOT));
+
+        ExecutorService fanOut = Executors.newCachedThreadPool(daemonThreads());
+        Metrics metrics = new Metrics();
+
+        List<String> householdKeys = new ArrayList<>();
+        List<Dataset> datasets = new ArrayList<>();
+        for (int h = 0; h < households; h++) {
+            ApiClient.Response created = new ApiClient(baseUrl, null, null, fanOut, 1, true)
+                    .postJson("seed", "/households", "{}");
+            String householdKey = created.field("key");
+            System.out.printf("Seeding household %s with %s dataset...%n", created.field("householdId"), size);
+            long start = System.nanoTime();
+            Dataset dataset = new Seeder(new ApiClient(baseUrl, householdKey, null, fanOut, Seeder.THREADS, true), seed + h).seed(size);
+            System.out.printf("  %d items in %.1f s%n", dataset.itemIds.size(), (System.nanoTime() - start) / 1e9);
+            householdKeys.add(householdKey);
+            datasets.add(dataset);
+        }
+
+        System.out.printf("Running %d users for %d s (+%d s warm-up), think time ~%d ms%n",
+                users, durationSeconds, warmupSeconds, thinkMillis);
+        long warmupEnd = System.nanoTime() + TimeUnit.SECONDS.toNanos(warmupSeconds);
+        long end = warmupEnd + TimeUnit.SECONDS.toNanos(durationSeconds);
+        List<Thread> threads = new ArrayList<>();
+        for (int u = 0; u < users; u++) {
+            int h = u % households;
+            ApiClient client = new ApiClient(baseUrl, householdKeys.get(h), metrics, fanOut, connections, false);
+            Thread thread = new Thread(new VirtualUser(client, datasets.get(h), metrics,
+                    new Random(seed * 31 + u), thinkMillis, end), "user-" + u);
+            thread.start();
+            threads.add(thread);
+        }
+
+        TimeUnit.NANOSECONDS.sleep(Math.max(0, warmupEnd - System.nanoTime()));
+        metrics.reset();
+        long measureStart = System.nanoTime();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        double measured = (System.nanoTime() - measureStart) / 1e9;
+
+        System.out.println();
+        metrics.print(System.out, measured);
+        fanOut.shutdownNow();
+    }
+
+    private static Map<String, String> parseArgs(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            if (!args[i].startsWith("--") || i + 1 >= args.length) {
+                throw new IllegalArgumentException("Expected --name value pairs, got: " + args[i]);
+            }
+            options.put(args[i].substring(2), args[++i]);
+        }
+        return options;
+    }
+
+    private static ThreadFactory daemonThreads() {
+        return runnable -> {
+            Thread thread = new Thread(runnable, "fan-out");
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private static class VirtualUser implements Runnable {
+        private final ApiClient client;
+
+        private final Dataset dataset;
+
+        private final Metrics metrics;
+
+        private final Random random;
+
+        private final int thinkMillis;
+
+        private final long end;
+
+        VirtualUser(ApiClient client, Dataset dataset, Metrics metrics, Random random, int thinkMillis, long end) {
+            this.client = client;
+            this.dataset = dataset;
+            this.metrics = metrics;
+            this.random = random;
+            this.thinkMillis = thinkMillis;
+            this.end = end;
+        }
+
+        @Override
+        public void run() {
+            while (System.nanoTime() < end) {
+                Scenario scenario = Scenario.pick(random);
+                long start = System.nanoTime();
+                int status;
+                client.resetOutcome();
+                try {
+                    scenario.run(client, dataset, random);
+                    // A scenario fails with its first rate-limited, shed or failed request
+                    status = client.outcome();
+                } catch (InterruptedException e) {
+                    return;
+                } catch (RuntimeException e) {
+                    status = -1;
+                }
+                metrics.record("scenario:" + scenario.label, status, System.nanoTime() - start);
+
+                try {
+                    Thread.sleep(thinkMillis > 0 ? random.nextInt(2 * thinkMillis) : 0);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.homeinventory.loadtest;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Collects latencies per request name (e.g. {@code GET /rooms/address/{id}}) and per
+ * scenario, and prints throughput and percentiles.
+ */
+public class Metrics {
+    private final Map<String, Series> series = new ConcurrentHashMap<>();
+
+    public void record(String name, int status, long latencyNanos) {
+        series.computeIfAbsent(name, key -> new Series()).add(status, latencyNanos);
+    }
+
+    public void reset() {
+        series.clear();
+    }
+
+    public void print(PrintStream out, double durationSeconds) {
+        out.printf("%-40s %8s %8s %9s %9s %9s %7s %7s %7s%n",
+                "name", "count", "req/s", "p50 ms", "p99 ms", "max ms", "429", "503", "errors");
+        long total = 0;
+        for (Map.Entry<String, Series> entry : new TreeMap<>(series).entrySet()) {
+            Series s = entry.getValue();
+            long[] sorted = s.sortedLatencies();
+            if (!entry.getKey().startsWith("scenario:")) {
+                total += sorted.length;
+            }
+            out.printf("%-40s %8d %8.1f %9.1f %9.1f %9.1f %7d %7d %7d%n",
+                    entry.getKey(), sorted.length, sorted.length / durationSeconds,
+                    percentile(sorted, 50), percentile(sorted, 99),
+                    sorted.length == 0 ? 0 : sorted[sorted.length - 1] / 1e6,
+                    s.rateLimited, s.shed, s.errors);
+        }
+        out.printf("%nTotal: %d requests in %.1f s (%.1f req/s)%n", total, durationSeconds, total / durationSeconds);
+    }
+
+    private static double percentile(long[] sorted, int percent) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percent / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1e6;
+    }
+
+    private static class Series {
+        private final List<Long> latencies = new ArrayList<>();
+
+        private long rateLimited;
+
+        private long shed;
+
+        private long errors;
+
+        synchronized void add(int status, long latencyNanos) {
+            latencies.add(latencyNanos);
+            if (status == 429) {
+                rateLimited++;
+            } else if (status == 503) {
+                shed++;
+            } else if (status < 0 || status >= 400) {
+                errors++;
+            }
+        }
+
+        synchronized long[] sortedLatencies() {
+            long[] values = new long[latencies.size()];
+            for (int i = 0; i < values.length; i++) {
+                values[i] = latencies.get(i);
+            }
+            Arrays.sort(values);
+            return values;
+        }
+    }
+}
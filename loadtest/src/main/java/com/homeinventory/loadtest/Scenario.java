@@ -0,0 +1,107 @@
+package com.homeinventory.loadtest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * One user-facing interaction, replaying the request pattern of the web pages
+ * ({@code web/src/pages}) and the mobile API service ({@code mobile/src/services/api.js}).
+ */
+public enum Scenario {
+    /** HomePage: addresses, then rooms of every address in parallel. */
+    HOME_SCREEN("home-screen", 40) {
+        @Override
+        void run(ApiClient client, Dataset data, Random random) {
+            client.get("GET /addresses", "/addresses");
+            List<String> paths = new ArrayList<>();
+            for (Long addressId : data.addressIds) {
+                paths.add("/rooms/address/" + addressId);
+            }
+            client.getAll("GET /rooms/address/{id}", paths);
+        }
+    },
+
+    /**
+     * ItemPage: room (then its address's rooms for the breadcrumb), storage locations, all
+     * items (then the photos of the room's items in one request) and addresses, all started
+     * together.
+     */
+    ROOM_ITEMS("room-items", 30) {
+        @Override
+        void run(ApiClient client, Dataset data, Random random) {
+            Long roomId = data.roomIds.get(random.nextInt(data.roomIds.size()));
+            client.inParallel(
+                    () -> {
+                        client.get("GET /rooms/{id}", "/rooms/" + roomId);
+                        client.get("GET /rooms/address/{id}", "/rooms/address/" + data.addressByRoom.get(roomId));
+                    },
+                    () -> client.get("GET /storage-locations/room/{id}", "/storage-locations/room/" + roomId),
+                    () -> {
+                        client.get("GET /items", "/items");
+                        client.get("GET /item-photos/room/{id}", "/item-photos/room/" + roomId);
+                    },
+                    () -> client.get("GET /addresses", "/addresses"));
+        }
+    },
+
+    /**
+     * GlobalSearch: the user types an item name; after each debounced keystroke (from two
+     * characters on) items, rooms and storage locations are fetched in parallel.
+     */
+    SEARCH_TYPING("search-typing", 25) {
+        @Override
+        void run(ApiClient client, Dataset data, Random random) throws InterruptedException {
+            String name = data.itemNames.get(random.nextInt(data.itemNames.size()));
+            int length = Math.min(name.length(), 2 + random.nextInt(4));
+            for (int typed = 2; typed <= length; typed++) {
+                List<String> paths = new ArrayList<>();
+                paths.add("/items");
+                paths.add("/rooms");
+                paths.add("/storage-locations");
+                client.getAll("GET search fan-out", paths);
+                Thread.sleep(300 + random.nextInt(200));
+            }
+        }
+    },
+
+    /** ItemPage / AddItemScreen: several photos uploaded for one item, then its photo list. */
+    BULK_PHOTO_UPLOAD("bulk-photo-upload", 5) {
+        @Override
+        void run(ApiClient client, Dataset data, Random random) {
+            Long itemId = data.itemIds.get(random.nextInt(data.itemIds.size()));
+            int photos = 2 + random.nextInt(4);
+            for (int i = 0; i < photos; i++) {
+                client.uploadPhoto("POST /item-photos/upload/{id}", "/item-photos/upload/" + itemId,
+                        "photo" + i + ".png", Seeder.randomPng(random, 640));
+            }
+            client.get("GET /item-photos/item/{id}", "/item-photos/item/" + itemId);
+        }
+    };
+
+    final String label;
+
+    final int weight;
+
+    Scenario(String label, int weight) {
+        this.label = label;
+        this.weight = weight;
+    }
+
+    abstract void run(ApiClient client, Dataset data, Random random) throws InterruptedException;
+
+    static Scenario pick(Random random) {
+        int total = 0;
+        for (Scenario scenario : values()) {
+            total += scenario.weight;
+        }
+        int roll = random.nextInt(total);
+        for (Scenario scenario : values()) {
+            roll -= scenario.weight;
+            if (roll < 0) {
+                return scenario;
+            }
+        }
+        throw new IllegalStateException();
+    }
+}
@@ -0,0 +1,113 @@
+package com.homeinventory.loadtest;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Creates a household through the public API: addresses, rooms, storage locations and
+ * items, with a photo on roughly one item in ten.
+ */
+public class Seeder {
+    static final int THREADS = 8;
+
+    private static final String[] ROOMS = {"客厅", "主卧", "次卧", "厨房", "书房", "卫生间", "阳台", "储藏室", "Garage", "Attic"};
+
+    private static final String[] LOCATIONS = {"衣柜", "抽屉", "书架", "鞋柜", "橱柜", "Shelf", "Cabinet", "Box"};
+
+    private static final String[] ITEMS = {"螺丝刀", "充电器", "护照", "Winter jacket", "电池", "剪刀", "Camera",
+            "Headphones", "雨伞", "Tape measure", "药箱", "Passport", "USB cable", "手电筒", "Notebook", "毛毯"};
+
+    private final ApiClient client;
+
+    private final Random random;
+
+    public Seeder(ApiClient client, long seed) {
+        this.client = client;
+        this.random = new Random(seed);
+    }
+
+    public Dataset seed(Dataset.Size size) throws Exception {
+        Dataset dataset = new Dataset();
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        try {
+            for (int a = 0; a < size.addresses; a++) {
+                long addressId = client.postJson("seed", "/addresses",
+                        "{\"name\":" + ApiClient.quote("Home " + (a + 1)) + ",\"address\":\"Load test\"}").id();
+                dataset.addressIds.add(addressId);
+
+                for (int r = 0; r < size.roomsPerAddress; r++) {
+                    String roomName = ROOMS[r % ROOMS.length] + (r >= ROOMS.length ? " " + r : "");
+                    long roomId = client.postJson("seed", "/rooms", "{\"name\":" + ApiClient.quote(roomName)
+                            + ",\"address\":{\"id\":" + addressId + "}}").id();
+                    dataset.roomIds.add(roomId);
+                    dataset.addressByRoom.put(roomId, addressId);
+
+                    for (int l = 0; l < size.locationsPerRoom; l++) {
+                        long locationId = client.postJson("seed", "/storage-locations", "{\"name\":"
+                                + ApiClient.quote(LOCATIONS[l % LOCATIONS.length] + " " + (l + 1))
+                                + ",\"type\":\"cabinet\",\"room\":{\"id\":" + roomId + "}}").id();
+                        seedItems(pool, dataset, locationId, size.itemsPerLocation);
+                    }
+                }
+            }
+        } finally {
+            pool.shutdown();
+        }
+        return dataset;
+    }
+
+    private void seedItems(ExecutorService pool, Dataset dataset, long locationId, int count)
+            throws Exception {
+        List<Future<?>> pending = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String name = ITEMS[random.nextInt(ITEMS.length)] + " " + (dataset.itemNames.size() + 1);
+            int quantity = 1 + random.nextInt(5);
+            boolean withPhoto = random.nextInt(10) == 0;
+            byte[] photo = withPhoto ? randomPng(random, 320) : null;
+            pending.add(pool.submit(() -> {
+                long itemId = client.postJson("seed", "/items", "{\"name\":" + ApiClient.quote(name)
+                        + ",\"description\":\"seeded\",\"quantity\":" + quantity
+                        + ",\"storageLocation\":{\"id\":" + locationId + "}}").id();
+                if (photo != null) {
+                    client.uploadPhoto("seed", "/item-photos/upload/" + itemId, "seed.png", photo);
+                }
+                synchronized (dataset) {
+                    dataset.itemIds.add(itemId);
+                }
+                return null;
+            }));
+            dataset.itemNames.add(name);
+        }
+        for (Future<?> future : pending) {
+            future.get();
+        }
+    }
+
+    static byte[] randomPng(Random random, int size) {
+        BufferedImage image = new BufferedImage(size, size, BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = image.createGraphics();
+        for (int i = 0; i < 20; i++) {
+            graphics.setColor(new Color(random.nextInt(0xFFFFFF)));
+            graphics.fillRect(random.nextInt(size), random.nextInt(size), random.nextInt(size / 2) + 1,
+                    random.nextInt(size / 2) + 1);
+        }
+        graphics.dispose();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            ImageIO.write(image, "png", out);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return out.toByteArray();
+    }
+}
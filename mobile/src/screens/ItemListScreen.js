@@ -58,8 +58,8 @@ export default function ItemListScreen({ navigation, route }) {
       );
       setItems(roomItems);
 
-      // 获取每个物品的照片
-      roomItems.forEach(item => fetchItemPhotos(item.id));
+      // 一次获取房间内所有物品的照片
+      fetchRoomPhotos();
     } catch (error) {
       console.error('Error fetching items:', error);
       Toast.show({
@@ -73,6 +73,15 @@ export default function ItemListScreen({ navigation, route }) {
     }
   };
 
+  const fetchRoomPhotos = async () => {
+    try {
+      const response = await itemPhotoAPI.getByRoomId(roomId);
+      setItemPhotos(response.data);
+    } catch (error) {
+      console.error('Error fetching photos:', error);
+    }
+  };
+
   const fetchItemPhotos = async (itemId) => {
     try {
       const response = await itemPhotoAPI.getByItemId(itemId);
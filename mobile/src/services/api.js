@@ -83,6 +83,7 @@ export const itemAPI = {
 // 物品照片相关API
 export const itemPhotoAPI = {
   getByItemId: (itemId) => api.get(`/item-photos/item/${itemId}`),
+  getByRoomId: (roomId) => api.get(`/item-photos/room/${roomId}`),
   upload: (itemId, formData) => {
     return api.post(`/item-photos/upload/${itemId}`, formData, {
       headers: {
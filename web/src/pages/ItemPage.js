@@ -89,13 +89,22 @@ export default function ItemPage() {
       );
       setItems(roomItems);
 
-      // Fetch photos for each item
-      roomItems.forEach(item => fetchItemPhotos(item.id));
+      // Fetch the photos of all items in the room at once
+      fetchRoomPhotos();
     } catch (error) {
       console.error('Error fetching items:', error);
     }
   };
 
+  const fetchRoomPhotos = async () => {
+    try {
+      const response = await axios.get(`${API_BASE_URL}/item-photos/room/${roomId}`);
+      setItemPhotos(response.data);
+    } catch (error) {
+      console.error('Error fetching photos:', error);
+    }
+  };
+
   const fetchItemPhotos = async (itemId) => {
     try {
       const response = await axios.get(`${API_BASE_URL}/item-photos/item/${itemId}`);